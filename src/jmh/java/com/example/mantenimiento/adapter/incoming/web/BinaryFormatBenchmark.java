@@ -0,0 +1,77 @@
+package com.example.mantenimiento.adapter.incoming.web;
+
+import com.example.mantenimiento.adapter.incoming.dto.ProductResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización y lectura de una lista de ProductResponse en JSON, CBOR y Smile: el coste que paga
+ * cada lado de una llamada entre servicios. En el arranque se imprime el tamaño de cada formato.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=BinaryFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BinaryFormatBenchmark {
+    private static final TypeReference<List<ProductResponse>> PRODUCT_LIST = new TypeReference<>() {
+    };
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public String format;
+
+    @Param({"1000"})
+    public int products;
+
+    private ObjectMapper mapper;
+    private List<ProductResponse> payload;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws Exception {
+        switch (format) {
+            case "JSON" -> mapper = new ObjectMapper();
+            case "CBOR" -> mapper = new CBORMapper();
+            case "SMILE" -> mapper = new SmileMapper();
+            default -> throw new IllegalArgumentException(format);
+        }
+        payload = new ArrayList<>(products);
+        UUID categoryId = UUID.randomUUID();
+        for (int i = 0; i < products; i++) {
+            ProductResponse product = new ProductResponse();
+            product.setId(UUID.randomUUID());
+            product.setName("Producto " + i);
+            product.setDescription("Descripción del producto número " + i + " del catálogo");
+            product.setPrice(BigDecimal.valueOf(1000 + i, 2));
+            product.setCategoryId(categoryId);
+            payload.add(product);
+        }
+        serialized = mapper.writeValueAsBytes(payload);
+        System.out.printf("%n%s, %d productos: %d bytes%n", format, products, serialized.length);
+    }
+
+    @Benchmark
+    public byte[] write() throws Exception {
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public List<ProductResponse> read() throws Exception {
+        return mapper.readValue(serialized, PRODUCT_LIST);
+    }
+}
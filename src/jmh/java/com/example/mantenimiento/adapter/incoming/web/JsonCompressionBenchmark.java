@@ -0,0 +1,79 @@
+package com.example.mantenimiento.adapter.incoming.web;
+
+import com.example.mantenimiento.adapter.incoming.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por petición de GET /products: serializar en cada petición, serializar y comprimir (lo que
+ * haría la compresión de Tomcat) o servir la variante gzip precomprimida de ResponseBodyCache.
+ * En el arranque de cada tamaño se imprimen los bytes en la red con y sin gzip.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=JsonCompressionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonCompressionBenchmark {
+
+    @Param({"100", "1000"})
+    public int products;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<ProductResponse> payload;
+    private ResponseBodyCache cache;
+
+    @Setup
+    public void setUp() throws Exception {
+        payload = new ArrayList<>(products);
+        UUID categoryId = UUID.randomUUID();
+        for (int i = 0; i < products; i++) {
+            ProductResponse product = new ProductResponse();
+            product.setId(UUID.randomUUID());
+            product.setName("Producto " + i);
+            product.setDescription("Descripción del producto número " + i + " del catálogo");
+            product.setPrice(BigDecimal.valueOf(1000 + i, 2));
+            product.setCategoryId(categoryId);
+            payload.add(product);
+        }
+        cache = new ResponseBodyCache(
+            objectMapper,
+            new MappingJackson2CborHttpMessageConverter(),
+            new MappingJackson2SmileHttpMessageConverter(),
+            true, 10, Long.MAX_VALUE / 4, 1024, 0, 1_000, true, 5_000
+        );
+        cache.respond(ResponseBodyCache.productsKey(false), null, "gzip", () -> payload);
+
+        byte[] json = objectMapper.writeValueAsBytes(payload);
+        System.out.printf("%n%d productos: %d bytes JSON, %d bytes gzip%n", products, json.length, ResponseBodyCache.gzip(json).length);
+    }
+
+    @Benchmark
+    public byte[] serializeEachRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzipEachRequest() throws Exception {
+        return ResponseBodyCache.gzip(objectMapper.writeValueAsBytes(payload));
+    }
+
+    @Benchmark
+    public byte[] precompressedHit() {
+        return cache.respond(ResponseBodyCache.productsKey(false), null, "gzip", () -> payload).getBody();
+    }
+}
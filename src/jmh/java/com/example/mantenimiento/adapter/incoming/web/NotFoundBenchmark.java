@@ -0,0 +1,85 @@
+package com.example.mantenimiento.adapter.incoming.web;
+
+import com.example.mantenimiento.adapter.incoming.dto.ApiErrorResponse;
+import com.example.mantenimiento.domain.constants.ErrorMessages;
+import com.example.mantenimiento.domain.exception.ResourceNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coste de un 404 sin la parte de red: excepción con traza de pila y OffsetDateTime.now().toString()
+ * (comportamiento anterior), excepción sin traza con ErrorResponses, y Optional vacío sin excepción.
+ * {@code depth} simula los marcos de la pila de Spring MVC que la traza tendría que recorrer.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=NotFoundBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NotFoundBenchmark {
+
+    private static final String PATH = "/products/a6da5d57-42d1-40af-a1de-f53b2f8f2d15";
+
+    @Param({"20", "120"})
+    public int depth;
+
+    private final UUID id = UUID.fromString("a6da5d57-42d1-40af-a1de-f53b2f8f2d15");
+
+    @Benchmark
+    public ResponseEntity<ApiErrorResponse> stackTraceException() {
+        try {
+            callDepth(depth, () -> {
+                throw new StackTraceNotFoundException(ErrorMessages.notFound(ErrorMessages.PRODUCT_NOT_FOUND, id.toString()));
+            });
+            return null;
+        } catch (StackTraceNotFoundException e) {
+            ApiErrorResponse body = new ApiErrorResponse(OffsetDateTime.now().toString(), 404, "Not Found", e.getMessage(), PATH);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiErrorResponse> stacklessException() {
+        try {
+            callDepth(depth, () -> {
+                throw new ResourceNotFoundException(ErrorMessages.PRODUCT_NOT_FOUND, id.toString());
+            });
+            return null;
+        } catch (ResourceNotFoundException e) {
+            return ErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage(), PATH);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> optionalResult() {
+        Optional<Object> result = callDepth(depth, Optional::empty);
+        return result.<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ErrorResponses.of(
+                HttpStatus.NOT_FOUND,
+                ErrorMessages.notFound(ErrorMessages.PRODUCT_NOT_FOUND, id.toString()),
+                PATH
+            ));
+    }
+
+    private static <T> T callDepth(int remaining, Supplier<T> body) {
+        return remaining == 0 ? body.get() : callDepth(remaining - 1, body);
+    }
+
+    private static final class StackTraceNotFoundException extends RuntimeException {
+        StackTraceNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
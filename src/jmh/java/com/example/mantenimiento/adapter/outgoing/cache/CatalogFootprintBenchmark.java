@@ -0,0 +1,121 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import com.example.mantenimiento.domain.model.Category;
+import com.example.mantenimiento.domain.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memoria del catálogo en memoria ({@link CatalogSnapshot}) frente a la forma mínima de objetos (lista más mapa
+ * por id). En el arranque se imprime la memoria de cada forma medida con JOL, por cada 100.000 productos: nombres
+ * de unos 25 caracteres, descripción de unos 50 en tres de cada cuatro y 50 categorías. Los benchmarks comparan la
+ * búsqueda por id y los productos de una categoría.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=CatalogFootprintBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CatalogFootprintBenchmark {
+
+    private static final int CATEGORIES = 50;
+
+    @Param({"100000"})
+    public int products;
+
+    private Map<UUID, Product> byId;
+    private CatalogSnapshot snapshot;
+    private UUID[] probes;
+    private UUID[] categories;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        categories = new UUID[CATEGORIES];
+        List<Category> categoryList = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES; i++) {
+            categories[i] = UUID.randomUUID();
+            categoryList.add(Category.builder().id(categories[i]).name("Categoría " + i).build());
+        }
+        List<Product> list = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            UUID category = categories[i % CATEGORIES];
+            list.add(Product.builder()
+                .id(UUID.randomUUID())
+                .name("Producto de catálogo " + i)
+                .description(i % 4 == 0 ? null : "Descripción del producto número " + i + " con detalles")
+                .price(BigDecimal.valueOf(100 + random.nextInt(100_000), 2))
+                // Como al leer de la base de datos: cada fila trae su propia instancia de UUID
+                .categoryId(new UUID(category.getMostSignificantBits(), category.getLeastSignificantBits()))
+                .build());
+        }
+        byId = new HashMap<>();
+        list.forEach(product -> byId.put(product.getId(), product));
+        snapshot = CatalogSnapshot.of(categoryList, list);
+        probes = new UUID[1024];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = list.get(random.nextInt(products)).getId();
+        }
+
+        double per100k = 100_000.0 / products;
+        long listBytes = GraphLayout.parseInstance(list).totalSize();
+        long objectBytes = GraphLayout.parseInstance(list, byId).totalSize();
+        long snapshotBytes = GraphLayout.parseInstance(indexChunks(snapshot)).totalSize();
+        System.out.printf("%nMemoria por 100.000 productos: lista de objetos %.1f MB, lista + mapa por id %.1f MB, "
+                + "CatalogSnapshot %.1f MB%n",
+            listBytes * per100k / 1e6, objectBytes * per100k / 1e6, snapshotBytes * per100k / 1e6);
+    }
+
+    // Los comparadores son constantes compartidas (y JOL no recorre lambdas): se miden los índices y lo que referencian
+    private static Object[] indexChunks(CatalogSnapshot snapshot) {
+        List<Object> chunks = new ArrayList<>();
+        try {
+            for (Field index : CatalogSnapshot.class.getDeclaredFields()) {
+                if (index.getType() == ChunkedSortedList.class && !Modifier.isStatic(index.getModifiers())) {
+                    index.setAccessible(true);
+                    Field field = ChunkedSortedList.class.getDeclaredField("chunks");
+                    field.setAccessible(true);
+                    chunks.add(field.get(index.get(snapshot)));
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        return chunks.toArray();
+    }
+
+    @Benchmark
+    public Product findObject() {
+        return byId.get(probes[next++ & (probes.length - 1)]);
+    }
+
+    @Benchmark
+    public Optional<Product> findSnapshot() {
+        return snapshot.product(probes[next++ & (probes.length - 1)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Product> categorySnapshot() {
+        return snapshot.productsInCategory(categories[next++ % CATEGORIES]);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.mantenimiento.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import jakarta.servlet.FilterChain;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por petición de JwtAuthFilter frente a la implementación anterior (parseo, autoridad y token nuevos
+ * en cada petición). Ejecutar con: ./gradlew jmh -Pjmh.includes=JwtAuthFilterBenchmark -Pjmh.profilers=gc
+ * y comparar gc.alloc.rate.norm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtUtil jwtUtil;
+    private JwtAuthFilter filter;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletRequest bearerRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(JwtKeyMaterial.hmac("changeitsecretkeymustbereplacedminimum32byteslong"), 900_000);
+        filter = new JwtAuthFilter(jwtUtil);
+        anonymousRequest = new MockHttpServletRequest("GET", "/products");
+        bearerRequest = new MockHttpServletRequest("GET", "/products");
+        bearerRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("admin", "ROLE_ADMIN"));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean anonymousRequest() throws Exception {
+        boolean skipped = filter.shouldNotFilter(anonymousRequest);
+        if (!skipped) {
+            filter.doFilterInternal(anonymousRequest, response, NO_OP_CHAIN);
+        }
+        return skipped;
+    }
+
+    @Benchmark
+    public Object bearerRequest() throws Exception {
+        filter.doFilterInternal(bearerRequest, response, NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public Object bearerRequestLegacy() {
+        String auth = bearerRequest.getHeader(HttpHeaders.AUTHORIZATION);
+        Jws<Claims> claims = jwtUtil.validateToken(auth.substring(7));
+        String role = (String) claims.getPayload().get("role");
+        SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role != null ? role : "ROLE_USER");
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(claims.getPayload().getSubject(), null, Collections.singletonList(authority))
+        );
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
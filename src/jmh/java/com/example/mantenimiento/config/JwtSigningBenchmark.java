@@ -0,0 +1,66 @@
+package com.example.mantenimiento.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de firma y verificación de JwtUtil con HS256, ES256 y EdDSA.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=JwtSigningBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtSigningBenchmark {
+
+    @Param({"HS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtUtil = new JwtUtil(keyMaterial(algorithm), 900_000);
+        token = jwtUtil.generateToken("admin", "ROLE_ADMIN");
+    }
+
+    static JwtKeyMaterial keyMaterial(String algorithm) throws Exception {
+        switch (algorithm) {
+            case "HS256":
+                return JwtKeyMaterial.hmac("benchmark-secret-key-of-32-bytes");
+            case "ES256": {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                KeyPair pair = generator.generateKeyPair();
+                return JwtKeyMaterial.asymmetric(pair.getPrivate(), pair.getPublic());
+            }
+            case "EdDSA": {
+                KeyPair pair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+                return JwtKeyMaterial.asymmetric(pair.getPrivate(), pair.getPublic());
+            }
+            default:
+                throw new IllegalArgumentException(algorithm);
+        }
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateToken("admin", "ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public Object verify() {
+        return jwtUtil.validateToken(token);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.mantenimiento.domain.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UUIDv4 frente a UUIDv7 como clave primaria: coste de generación e inserción en un modelo de las
+ * hojas de un índice B-tree de PostgreSQL (páginas de 8 KB, partición por la mitad salvo en la hoja
+ * más a la derecha, que queda al 90%). En el arranque de cada tipo se imprimen páginas y ocupación.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=UuidV7Benchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UuidV7Benchmark {
+
+    // (8192 - cabecera 24 - special 16) / (tupla 16 + cabecera de tupla 8 + puntero 4)
+    private static final int PAGE_CAPACITY = 291;
+    private static final int RIGHTMOST_FILL = PAGE_CAPACITY * 90 / 100;
+
+    @Param({"V4", "V7"})
+    public String version;
+
+    @Param({"200000"})
+    public int rows;
+
+    private List<UUID> keys;
+
+    @Setup
+    public void setUp() {
+        keys = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            keys.add("V7".equals(version) ? UuidV7.generate() : UUID.randomUUID());
+        }
+        LeafPages index = insertAll();
+        System.out.printf("%n%s, %d filas: %d páginas hoja (%d KB), ocupación media %.0f%%, %d particiones%n",
+            version, rows, index.pages(), index.pages() * 8, 100.0 * rows / (index.pages() * PAGE_CAPACITY), index.splits);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public UUID generate() {
+        return "V7".equals(version) ? UuidV7.generate() : UUID.randomUUID();
+    }
+
+    @Benchmark
+    public LeafPages insert() {
+        return insertAll();
+    }
+
+    private LeafPages insertAll() {
+        LeafPages index = new LeafPages();
+        for (UUID key : keys) {
+            index.insert(key);
+        }
+        return index;
+    }
+
+    /**
+     * Hojas del índice indexadas por su clave mínima.
+     */
+    public static final class LeafPages {
+        private final TreeMap<UUID, List<UUID>> pages = new TreeMap<>();
+        private int splits;
+
+        void insert(UUID key) {
+            Map.Entry<UUID, List<UUID>> entry = pages.floorEntry(key);
+            if (entry == null) {
+                entry = pages.firstEntry();
+                if (entry == null) {
+                    List<UUID> page = new ArrayList<>(PAGE_CAPACITY + 1);
+                    page.add(key);
+                    pages.put(key, page);
+                    return;
+                }
+                // Nueva clave mínima: la primera hoja pasa a indexarse por ella
+                pages.remove(entry.getKey());
+                pages.put(key, entry.getValue());
+                entry = pages.firstEntry();
+            }
+            List<UUID> page = entry.getValue();
+            int position = Collections.binarySearch(page, key);
+            page.add(position < 0 ? -position - 1 : position, key);
+            if (page.size() > PAGE_CAPACITY) {
+                boolean rightmost = entry.getKey().equals(pages.lastKey()) && key.equals(page.get(page.size() - 1));
+                int at = rightmost ? RIGHTMOST_FILL : page.size() / 2;
+                List<UUID> right = new ArrayList<>(PAGE_CAPACITY + 1);
+                right.addAll(page.subList(at, page.size()));
+                page.subList(at, page.size()).clear();
+                pages.put(right.get(0), right);
+                splits++;
+            }
+        }
+
+        int pages() {
+            return pages.size();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.mantenimiento.adapter.incoming.dto;
+
+import java.util.List;
+
+import com.example.mantenimiento.domain.constants.ErrorMessages;
+import com.example.mantenimiento.domain.constants.ValidationRules;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+@Schema(name = "BulkUserRegisterRequest", description = "Lote de usuarios a registrar")
+public class BulkUserRegisterRequest {
+
+    @NotNull(message = ErrorMessages.USER_BULK_SIZE)
+    @Size(min = 1, max = ValidationRules.MAX_BULK_USERS, message = ErrorMessages.USER_BULK_SIZE)
+    private List<UserRegisterRequest> users;
+
+    public BulkUserRegisterRequest() {
+    }
+
+    public List<UserRegisterRequest> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserRegisterRequest> users) {
+        this.users = users;
+    }
+}
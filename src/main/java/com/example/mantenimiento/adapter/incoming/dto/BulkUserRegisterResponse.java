@@ -0,0 +1,50 @@
+package com.example.mantenimiento.adapter.incoming.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "BulkUserRegisterResponse", description = "Resultado del registro masivo, en el mismo orden que la solicitud")
+public class BulkUserRegisterResponse {
+
+    @Schema(example = "998")
+    private int created;
+
+    @Schema(example = "2")
+    private int failed;
+
+    private List<UserRegistrationResultResponse> results;
+
+    public BulkUserRegisterResponse() {
+    }
+
+    public BulkUserRegisterResponse(int created, int failed, List<UserRegistrationResultResponse> results) {
+        this.created = created;
+        this.failed = failed;
+        this.results = results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<UserRegistrationResultResponse> getResults() {
+        return results;
+    }
+
+    public void setResults(List<UserRegistrationResultResponse> results) {
+        this.results = results;
+    }
+}
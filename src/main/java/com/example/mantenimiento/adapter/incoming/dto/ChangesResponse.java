@@ -0,0 +1,64 @@
+package com.example.mantenimiento.adapter.incoming.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(name = "ChangesResponse", description = "Página del feed de cambios")
+public class ChangesResponse<T> {
+
+    @Schema(description = "Altas y modificaciones desde el token, con su estado actual")
+    private List<T> changed;
+
+    @Schema(description = "Ids borrados desde el token")
+    private List<UUID> deleted;
+
+    @Schema(description = "Token opaco para la siguiente petición (parámetro since)", example = "MToxNzYwODc0NDAwMDAwMDAwOjAxOTk...")
+    private String nextSince;
+
+    @Schema(description = "true si hay más cambios disponibles: pedir de inmediato con nextSince")
+    private boolean hasMore;
+
+    public ChangesResponse() {
+    }
+
+    public ChangesResponse(List<T> changed, List<UUID> deleted, String nextSince, boolean hasMore) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<T> changed) {
+        this.changed = changed;
+    }
+
+    public List<UUID> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<UUID> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getNextSince() {
+        return nextSince;
+    }
+
+    public void setNextSince(String nextSince) {
+        this.nextSince = nextSince;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
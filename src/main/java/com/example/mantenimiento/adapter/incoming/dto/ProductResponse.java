@@ -1,5 +1,7 @@
 package com.example.mantenimiento.adapter.incoming.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
@@ -23,6 +25,10 @@ public class ProductResponse {
     @Schema(example = "58fa5de6-b194-4e7d-814a-f0ed9072d8f3")
     private UUID categoryId;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Categoría embebida; solo presente con expand=category")
+    private CategoryResponse category;
+
     public ProductResponse() {
     }
 
@@ -73,4 +79,12 @@ public class ProductResponse {
     public void setCategoryId(UUID categoryId) {
         this.categoryId = categoryId;
     }
+
+    public CategoryResponse getCategory() {
+        return category;
+    }
+
+    public void setCategory(CategoryResponse category) {
+        this.category = category;
+    }
 }
@@ -0,0 +1,63 @@
+package com.example.mantenimiento.adapter.incoming.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(name = "UserRegistrationResultResponse", description = "Resultado del registro de un usuario dentro de un lote")
+public class UserRegistrationResultResponse {
+
+    @Schema(example = "newuser")
+    private String username;
+
+    @Schema(example = "CREATED", allowableValues = {"CREATED", "DUPLICATE", "INVALID"})
+    private String status;
+
+    @Schema(example = "3c00f8ed-1118-4f58-9bc5-1b467faec41d")
+    private UUID id;
+
+    @Schema(example = "El nombre de usuario ya está registrado")
+    private String message;
+
+    public UserRegistrationResultResponse() {
+    }
+
+    public UserRegistrationResultResponse(String username, String status, UUID id, String message) {
+        this.username = username;
+        this.status = status;
+        this.id = id;
+        this.message = message;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
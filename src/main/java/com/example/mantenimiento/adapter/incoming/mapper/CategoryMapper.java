@@ -2,11 +2,10 @@ package com.example.mantenimiento.adapter.incoming.mapper;
 
 import com.example.mantenimiento.adapter.incoming.dto.CategoryRequest;
 import com.example.mantenimiento.adapter.incoming.dto.CategoryResponse;
+import com.example.mantenimiento.domain.id.UuidV7;
 import com.example.mantenimiento.domain.model.Category;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
-
 @Component
 public class CategoryMapper {
 
@@ -18,7 +17,7 @@ public class CategoryMapper {
 
     public Category toNewDomain(CategoryRequest request) {
         return Category.builder()
-            .id(UUID.randomUUID())
+            .id(UuidV7.generate())
             .name(request.getName())
             .build();
     }
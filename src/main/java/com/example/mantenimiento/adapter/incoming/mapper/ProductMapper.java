@@ -1,12 +1,13 @@
 package com.example.mantenimiento.adapter.incoming.mapper;
 
+import com.example.mantenimiento.adapter.incoming.dto.CategoryResponse;
 import com.example.mantenimiento.adapter.incoming.dto.ProductRequest;
 import com.example.mantenimiento.adapter.incoming.dto.ProductResponse;
+import com.example.mantenimiento.domain.id.UuidV7;
+import com.example.mantenimiento.domain.model.Category;
 import com.example.mantenimiento.domain.model.Product;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
-
 @Component
 public class ProductMapper {
 
@@ -21,7 +22,7 @@ public class ProductMapper {
 
     public Product toNewDomain(ProductRequest request) {
         return Product.builder()
-            .id(UUID.randomUUID())
+            .id(UuidV7.generate())
             .name(request.getName())
             .description(request.getDescription())
             .price(request.getPrice())
@@ -38,4 +39,12 @@ public class ProductMapper {
             domain.getCategoryId()
         );
     }
+
+    public ProductResponse toResponse(Product domain, Category category) {
+        ProductResponse response = toResponse(domain);
+        if (category != null) {
+            response.setCategory(new CategoryResponse(category.getId(), category.getName()));
+        }
+        return response;
+    }
 }
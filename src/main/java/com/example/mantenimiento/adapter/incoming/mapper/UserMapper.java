@@ -1,18 +1,23 @@
 package com.example.mantenimiento.adapter.incoming.mapper;
 
+import com.example.mantenimiento.adapter.incoming.dto.BulkUserRegisterResponse;
 import com.example.mantenimiento.adapter.incoming.dto.UserRegisterRequest;
+import com.example.mantenimiento.adapter.incoming.dto.UserRegistrationResultResponse;
 import com.example.mantenimiento.adapter.incoming.dto.UserResponse;
+import com.example.mantenimiento.domain.id.UuidV7;
 import com.example.mantenimiento.domain.model.User;
+import com.example.mantenimiento.usecase.model.UserRegistrationOutcome;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Component
 public class UserMapper {
 
     public User toNewDomain(UserRegisterRequest request) {
         return User.builder()
-            .id(UUID.randomUUID())
+            .id(UuidV7.generate())
             .username(request.getUsername())
             .password(request.getPassword())
             .role(request.getRole())
@@ -22,4 +27,19 @@ public class UserMapper {
     public UserResponse toResponse(User domain) {
         return new UserResponse(domain.getId(), domain.getUsername(), domain.getRole());
     }
+
+    public BulkUserRegisterResponse toBulkResponse(List<UserRegistrationOutcome> outcomes) {
+        List<UserRegistrationResultResponse> results = outcomes.stream()
+            .map(outcome -> new UserRegistrationResultResponse(
+                outcome.getUsername(),
+                outcome.getStatus().name(),
+                outcome.getUser() == null ? null : outcome.getUser().getId(),
+                outcome.getMessage()
+            ))
+            .collect(Collectors.toList());
+        int created = (int) outcomes.stream()
+            .filter(outcome -> outcome.getStatus() == UserRegistrationOutcome.Status.CREATED)
+            .count();
+        return new BulkUserRegisterResponse(created, outcomes.size() - created, results);
+    }
 }
@@ -1,9 +1,9 @@
 package com.example.mantenimiento.adapter.incoming.web;
 
-import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -13,24 +13,32 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.mantenimiento.adapter.incoming.dto.ApiErrorResponse;
+import com.example.mantenimiento.adapter.incoming.dto.ChangesResponse;
 import com.example.mantenimiento.adapter.incoming.dto.CategoryRequest;
 import com.example.mantenimiento.adapter.incoming.dto.CategoryResponse;
 import com.example.mantenimiento.adapter.incoming.mapper.CategoryMapper;
+import com.example.mantenimiento.domain.constants.ErrorMessages;
+import com.example.mantenimiento.domain.model.Category;
 import com.example.mantenimiento.usecase.CategoryUseCase;
+import com.example.mantenimiento.usecase.model.ChangeSet;
 
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -40,16 +48,19 @@ import jakarta.validation.Valid;
 public class CategoryController {
     private final CategoryUseCase categoryUseCase;
     private final CategoryMapper categoryMapper;
+    private final ResponseBodyCache responseCache;
 
     public CategoryController(
         CategoryUseCase categoryUseCase,
-        CategoryMapper categoryMapper
+        CategoryMapper categoryMapper,
+        ResponseBodyCache responseCache
     ) {
         this.categoryUseCase = categoryUseCase;
         this.categoryMapper = categoryMapper;
+        this.responseCache = responseCache;
     }
 
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ResponseBodyCache.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Listar categorías")
     @ApiResponses(value = {
         @ApiResponse(
@@ -76,12 +87,50 @@ public class CategoryController {
             )
         )
     })
-    public ResponseEntity<List<CategoryResponse>> list() {
-        List<CategoryResponse> categories = categoryUseCase.list()
+    public ResponseEntity<byte[]> list(
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return responseCache.respond(ResponseBodyCache.categoriesKey(), accept, acceptEncoding, () -> categoryUseCase.list()
             .stream()
             .map(categoryMapper::toResponse)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(categories);
+            .collect(Collectors.toList()));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Cambios de categorías desde un token",
+        description = "Sincronización incremental: sin since devuelve todo el catálogo por páginas; después, solo lo modificado "
+            + "o borrado desde el nextSince de la respuesta anterior. Con hasMore=true hay que pedir la página siguiente."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de cambios"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Token o limit inválidos",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ApiErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "410",
+            description = "Token anterior a la retención de borrados: hay que sincronizar desde el principio",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ApiErrorResponse.class))
+        )
+    })
+    public ResponseEntity<ChangesResponse<CategoryResponse>> changes(
+        @Parameter(description = "nextSince de la respuesta anterior; vacío para empezar desde el principio")
+        @RequestParam(required = false) String since,
+        @Parameter(description = "Tamaño de página (por defecto 500, máximo 1000)", example = "500")
+        @RequestParam(required = false) Integer limit
+    ) {
+        ChangeSet<Category> changes = categoryUseCase.changesSince(since, limit);
+        return ResponseEntity.ok(new ChangesResponse<>(
+            changes.getChanged().stream().map(categoryMapper::toResponse).collect(Collectors.toList()),
+            changes.getDeleted(),
+            changes.getNext().encode(),
+            changes.hasMore()
+        ));
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -170,14 +219,13 @@ public class CategoryController {
             content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ApiErrorResponse.class))
         )
     })
-    public ResponseEntity<CategoryResponse> update(@PathVariable UUID id, @Valid @RequestBody CategoryRequest request) {
-        CategoryResponse response = categoryMapper.toResponse(
-            categoryUseCase.update(id, categoryMapper.toDomain(request))
-        );
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> update(@PathVariable UUID id, @Valid @RequestBody CategoryRequest request, HttpServletRequest httpRequest) {
+        return categoryUseCase.update(id, categoryMapper.toDomain(request))
+            .<ResponseEntity<?>>map(updated -> ResponseEntity.ok(categoryMapper.toResponse(updated)))
+            .orElseGet(() -> notFound(id, httpRequest));
     }
 
-    @GetMapping(value = "/{id}")
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ResponseBodyCache.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Obtener categoría por ID")
     @ApiResponses(value = {
         @ApiResponse(
@@ -216,10 +264,16 @@ public class CategoryController {
             )
         )
     })
-    public ResponseEntity<CategoryResponse> get(@PathVariable UUID id) {
-        return categoryUseCase.getById(id)
-            .map(category -> ResponseEntity.ok(categoryMapper.toResponse(category)))
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> get(
+        @PathVariable UUID id,
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return responseCache.respond(ResponseBodyCache.categoryKey(id), accept, acceptEncoding, () -> categoryUseCase.getById(id)
+            .map(categoryMapper::toResponse)
+            .orElse(null));
     }
 
     @DeleteMapping(value = "/{id}")
@@ -257,9 +311,20 @@ public class CategoryController {
             )
         )
     })
-    public ResponseEntity<Void> delete(@PathVariable UUID id) {
-        categoryUseCase.deleteById(id);
+    public ResponseEntity<?> delete(@PathVariable UUID id, HttpServletRequest httpRequest) {
+        if (!categoryUseCase.deleteById(id)) {
+            return notFound(id, httpRequest);
+        }
         return ResponseEntity.noContent().build();
     }
+
+    // 404 sin excepción: mismo cuerpo que GlobalExceptionHandler
+    private static ResponseEntity<ApiErrorResponse> notFound(UUID id, HttpServletRequest httpRequest) {
+        return ErrorResponses.of(
+            HttpStatus.NOT_FOUND,
+            ErrorMessages.notFound(ErrorMessages.CATEGORY_NOT_FOUND, id.toString()),
+            httpRequest.getRequestURI()
+        );
+    }
 }
 
@@ -0,0 +1,73 @@
+package com.example.mantenimiento.adapter.incoming.web;
+
+import com.example.mantenimiento.adapter.incoming.dto.ApiErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Cuerpos de error {@link ApiErrorResponse}, compartidos por GlobalExceptionHandler y por los
+ * controladores que resuelven un 404 sin lanzar excepción. La marca de tiempo (precisión de
+ * milisegundos, zona del servidor) reutiliza la parte de fecha y zona formateada para el segundo actual.
+ */
+public final class ErrorResponses {
+
+    private static final DateTimeFormatter SECOND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static volatile FormattedSecond current = FormattedSecond.of(0);
+
+    private ErrorResponses() {
+    }
+
+    public static ResponseEntity<ApiErrorResponse> of(HttpStatus status, String message, String path) {
+        ApiErrorResponse response = new ApiErrorResponse(
+            timestamp(System.currentTimeMillis()),
+            status.value(),
+            status.getReasonPhrase(),
+            message,
+            path
+        );
+        return ResponseEntity.status(status).body(response);
+    }
+
+    static String timestamp(long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000L);
+        FormattedSecond formatted = current;
+        if (formatted.epochSecond != second) {
+            formatted = FormattedSecond.of(second);
+            current = formatted;
+        }
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+        StringBuilder builder = new StringBuilder(formatted.dateTime.length() + 4 + formatted.offset.length())
+            .append(formatted.dateTime)
+            .append('.');
+        if (millis < 100) {
+            builder.append('0');
+        }
+        if (millis < 10) {
+            builder.append('0');
+        }
+        return builder.append(millis).append(formatted.offset).toString();
+    }
+
+    private static final class FormattedSecond {
+        private final long epochSecond;
+        private final String dateTime;
+        private final String offset;
+
+        private FormattedSecond(long epochSecond, String dateTime, String offset) {
+            this.epochSecond = epochSecond;
+            this.dateTime = dateTime;
+            this.offset = offset;
+        }
+
+        static FormattedSecond of(long epochSecond) {
+            OffsetDateTime time = OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+            return new FormattedSecond(epochSecond, SECOND_FORMAT.format(time), time.getOffset().getId());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.mantenimiento.adapter.incoming.web;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.mantenimiento.config.JwtUtil;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Tag(name = "Auth", description = "Endpoints de autenticación")
+public class JwksController {
+    private static final String JWK_SET_MEDIA_TYPE = "application/jwk-set+json";
+
+    private final JwtUtil jwtUtil;
+
+    public JwksController(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = {JWK_SET_MEDIA_TYPE, "application/json"})
+    @Operation(
+        summary = "Claves públicas JWT",
+        description = "JWKS para verificar los tokens emitidos por este servicio. Vacío cuando la firma es HMAC"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Conjunto de claves públicas")
+    })
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePublic())
+            .body(jwtUtil.getJwks());
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.mantenimiento.adapter.incoming.web;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -13,24 +16,34 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.mantenimiento.adapter.incoming.dto.ApiErrorResponse;
+import com.example.mantenimiento.adapter.incoming.dto.ChangesResponse;
 import com.example.mantenimiento.adapter.incoming.dto.ProductRequest;
 import com.example.mantenimiento.adapter.incoming.dto.ProductResponse;
 import com.example.mantenimiento.adapter.incoming.mapper.ProductMapper;
+import com.example.mantenimiento.domain.constants.ErrorMessages;
+import com.example.mantenimiento.domain.model.Category;
+import com.example.mantenimiento.domain.model.Product;
+import com.example.mantenimiento.usecase.CategoryUseCase;
 import com.example.mantenimiento.usecase.ProductUseCase;
+import com.example.mantenimiento.usecase.model.ChangeSet;
 
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -38,18 +51,27 @@ import jakarta.validation.Valid;
 @Tag(name = "Products", description = "Gestión de productos")
 @SecurityRequirement(name = "bearerAuth")
 public class ProductController {
+    private static final String EXPAND_CATEGORY = "category";
+    private static final String EXPAND_DESCRIPTION = "Relaciones a embeber en la respuesta. Valor admitido: category";
+
     private final ProductUseCase productUseCase;
+    private final CategoryUseCase categoryUseCase;
     private final ProductMapper productMapper;
+    private final ResponseBodyCache responseCache;
 
     public ProductController(
         ProductUseCase productUseCase,
-        ProductMapper productMapper
+        CategoryUseCase categoryUseCase,
+        ProductMapper productMapper,
+        ResponseBodyCache responseCache
     ) {
         this.productUseCase = productUseCase;
+        this.categoryUseCase = categoryUseCase;
         this.productMapper = productMapper;
+        this.responseCache = responseCache;
     }
 
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ResponseBodyCache.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Listar productos")
     @ApiResponses(value = {
         @ApiResponse(
@@ -76,12 +98,59 @@ public class ProductController {
             )
         )
     })
-    public ResponseEntity<List<ProductResponse>> list() {
-        List<ProductResponse> products = productUseCase.list()
-            .stream()
-            .map(productMapper::toResponse)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> list(
+        @Parameter(description = EXPAND_DESCRIPTION, example = EXPAND_CATEGORY)
+        @RequestParam(required = false) String expand,
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        boolean expandCategory = expandsCategory(expand);
+        return responseCache.respond(ResponseBodyCache.productsKey(expandCategory), accept, acceptEncoding, () -> {
+            List<Product> products = productUseCase.list();
+            Map<UUID, Category> categories = expandCategory
+                ? categoryUseCase.getByIds(products.stream().map(Product::getCategoryId).collect(Collectors.toSet()))
+                : Map.of();
+            return products
+                .stream()
+                .map(product -> productMapper.toResponse(product, categories.get(product.getCategoryId())))
+                .collect(Collectors.toList());
+        });
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Cambios de productos desde un token",
+        description = "Sincronización incremental: sin since devuelve todo el catálogo por páginas; después, solo lo modificado "
+            + "o borrado desde el nextSince de la respuesta anterior. Con hasMore=true hay que pedir la página siguiente."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de cambios"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Token o limit inválidos",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ApiErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "410",
+            description = "Token anterior a la retención de borrados: hay que sincronizar desde el principio",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ApiErrorResponse.class))
+        )
+    })
+    public ResponseEntity<ChangesResponse<ProductResponse>> changes(
+        @Parameter(description = "nextSince de la respuesta anterior; vacío para empezar desde el principio")
+        @RequestParam(required = false) String since,
+        @Parameter(description = "Tamaño de página (por defecto 500, máximo 1000)", example = "500")
+        @RequestParam(required = false) Integer limit
+    ) {
+        ChangeSet<Product> changes = productUseCase.changesSince(since, limit);
+        return ResponseEntity.ok(new ChangesResponse<>(
+            changes.getChanged().stream().map(productMapper::toResponse).collect(Collectors.toList()),
+            changes.getDeleted(),
+            changes.getNext().encode(),
+            changes.hasMore()
+        ));
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -170,14 +239,13 @@ public class ProductController {
             content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ApiErrorResponse.class))
         )
     })
-    public ResponseEntity<ProductResponse> update(@PathVariable UUID id, @Valid @RequestBody ProductRequest request) {
-        ProductResponse response = productMapper.toResponse(
-            productUseCase.update(id, productMapper.toDomain(request))
-        );
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> update(@PathVariable UUID id, @Valid @RequestBody ProductRequest request, HttpServletRequest httpRequest) {
+        return productUseCase.update(id, productMapper.toDomain(request))
+            .<ResponseEntity<?>>map(updated -> ResponseEntity.ok(productMapper.toResponse(updated)))
+            .orElseGet(() -> notFound(id, httpRequest));
     }
 
-    @GetMapping(value = "/{id}")
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ResponseBodyCache.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Obtener producto por ID")
     @ApiResponses(value = {
         @ApiResponse(
@@ -216,10 +284,22 @@ public class ProductController {
             )
         )
     })
-    public ResponseEntity<ProductResponse> get(@PathVariable UUID id) {
-        return productUseCase.getById(id)
-            .map(product -> ResponseEntity.ok(productMapper.toResponse(product)))
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> get(
+        @PathVariable UUID id,
+        @Parameter(description = EXPAND_DESCRIPTION, example = EXPAND_CATEGORY)
+        @RequestParam(required = false) String expand,
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        boolean expandCategory = expandsCategory(expand);
+        return responseCache.respond(ResponseBodyCache.productKey(id, expandCategory), accept, acceptEncoding, () -> productUseCase.getById(id)
+            .map(product -> productMapper.toResponse(
+                product,
+                expandCategory ? categoryUseCase.getByIds(Set.of(product.getCategoryId())).get(product.getCategoryId()) : null
+            ))
+            .orElse(null));
     }
 
     @DeleteMapping(value = "/{id}")
@@ -257,10 +337,31 @@ public class ProductController {
             )
         )
     })
-    public ResponseEntity<Void> delete(@PathVariable UUID id) {
-        productUseCase.deleteById(id);
+    public ResponseEntity<?> delete(@PathVariable UUID id, HttpServletRequest httpRequest) {
+        if (!productUseCase.deleteById(id)) {
+            return notFound(id, httpRequest);
+        }
         return ResponseEntity.noContent().build();
     }
-}
 
+    // 404 sin excepción: mismo cuerpo que GlobalExceptionHandler
+    private static ResponseEntity<ApiErrorResponse> notFound(UUID id, HttpServletRequest httpRequest) {
+        return ErrorResponses.of(
+            HttpStatus.NOT_FOUND,
+            ErrorMessages.notFound(ErrorMessages.PRODUCT_NOT_FOUND, id.toString()),
+            httpRequest.getRequestURI()
+        );
+    }
 
+    private static boolean expandsCategory(String expand) {
+        if (expand == null) {
+            return false;
+        }
+        for (String relation : expand.split(",")) {
+            if (EXPAND_CATEGORY.equalsIgnoreCase(relation.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.mantenimiento.adapter.incoming.web;
+
+import com.example.mantenimiento.adapter.outgoing.cache.BoundedLruMap;
+import com.example.mantenimiento.adapter.outgoing.cache.CacheInvalidationListener;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogEntityType;
+import com.example.mantenimiento.adapter.outgoing.cache.SingleFlight;
+import com.example.mantenimiento.config.ReadWriteRoutingDataSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuestas GET calientes ya serializadas: un acierto se sirve copiando los bytes, sin mapper ni
+ * Jackson. Cada recurso guarda una variante por formato negociado (JSON, CBOR o Smile) y, si es
+ * grande, su versión gzip, comprimida una vez por cambio del catálogo. Se descartan con las
+ * escrituras (de este nodo tras el commit y de otros vía {@code CacheInvalidationBus}); el TTL solo
+ * cubre el retraso de las réplicas.
+ * Los fallos concurrentes de una misma clave comparten una sola carga ({@link SingleFlight}) y una
+ * entrada caducada por TTL se sigue sirviendo durante {@code staleWhileRevalidateMs} mientras una única
+ * recarga en segundo plano la renueva. Las entradas invalidadas por escrituras no se sirven salvo
+ * con la base de datos caída ({@code staleIfError}): entonces se responde el último cuerpo cargado de la
+ * clave, sin caducidad, con {@code Warning: 110} y {@code Age}.
+ * Durante {@code read-your-writes-ms} tras una invalidación las cargas leen del primario, también las compartidas
+ * y las recargas en segundo plano: una réplica con retraso guardaría para todos el cuerpo anterior a la escritura.
+ * Ambos mapas se limitan a {@code maxEntries} claves ({@link BoundedLruMap}): al llenarse se descarta lo
+ * caducado y, si no basta, el 10 % de claves usadas hace más tiempo.
+ */
+@Component
+public class ResponseBodyCache implements CacheInvalidationListener {
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    private static final String CATEGORIES = "categories";
+    private static final String PRODUCTS = "products";
+    private static final String PRODUCT_PREFIX = "product:";
+    private static final String CATEGORY_PREFIX = "category:";
+    private static final String EXPANDED_SUFFIX = "?expand=category";
+    private static final int REFRESH_QUEUE = 256;
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    // En orden de preferencia: JSON gana ante */* o empates de calidad
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+    private final boolean enabled;
+    private final long ttlMs;
+    private final int gzipMinBytes;
+    private final BoundedLruMap<String, Variants> entries;
+    // Cambia con cada invalidación; una carga que se solapa con una escritura no se guarda
+    private final AtomicLong generation = new AtomicLong();
+    // Momento de la última invalidación; se escribe antes de cambiar la generación
+    private volatile long invalidatedAt;
+    private final long primaryAfterInvalidationMs;
+    private final long staleWhileRevalidateMs;
+    private final SingleFlight<String, Loaded> flights;
+    private final ThreadPoolExecutor refresher;
+    private final boolean staleIfError;
+    // Último cuerpo cargado de cada clave; no lo vacían las invalidaciones, solo una carga posterior
+    private final BoundedLruMap<String, Variants> lastKnownGood;
+
+    public ResponseBodyCache(
+        ObjectMapper objectMapper,
+        MappingJackson2CborHttpMessageConverter cborConverter,
+        MappingJackson2SmileHttpMessageConverter smileConverter,
+        @Value("${catalog.response-cache.enabled:true}") boolean enabled,
+        @Value("${catalog.response-cache.max-entries:10000}") int maxEntries,
+        @Value("${catalog.response-cache.ttl-ms:30000}") long ttlMs,
+        @Value("${catalog.response-cache.gzip-min-bytes:1024}") int gzipMinBytes,
+        @Value("${catalog.response-cache.stale-while-revalidate-ms:30000}") long staleWhileRevalidateMs,
+        @Value("${catalog.response-cache.coalesce-timeout-ms:5000}") long coalesceTimeoutMs,
+        @Value("${catalog.response-cache.stale-if-error:true}") boolean staleIfError,
+        @Value("${datasource-routing.read-your-writes-ms:5000}") long primaryAfterInvalidationMs
+    ) {
+        mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        mappers.put(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper());
+        mappers.put(APPLICATION_SMILE, smileConverter.getObjectMapper());
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+        this.gzipMinBytes = gzipMinBytes;
+        this.staleWhileRevalidateMs = staleWhileRevalidateMs;
+        // Una entrada sobra cuando ni siquiera puede servirse como stale; lastKnownGood no caduca
+        this.entries = new BoundedLruMap<>(maxEntries, variants -> variants.expiresAt() + staleWhileRevalidateMs);
+        this.lastKnownGood = new BoundedLruMap<>(maxEntries, variants -> Long.MAX_VALUE);
+        this.flights = new SingleFlight<>(coalesceTimeoutMs);
+        // Una recarga por clave como máximo (SingleFlight); la cola acotada solo absorbe picos de claves distintas
+        this.refresher = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(REFRESH_QUEUE), runnable -> {
+            Thread thread = new Thread(runnable, "response-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refresher.allowCoreThreadTimeOut(true);
+        this.staleIfError = staleIfError;
+        this.primaryAfterInvalidationMs = primaryAfterInvalidationMs;
+    }
+
+    public static String categoriesKey() {
+        return CATEGORIES;
+    }
+
+    public static String productsKey(boolean expandCategory) {
+        return PRODUCTS + (expandCategory ? EXPANDED_SUFFIX : "");
+    }
+
+    public static String productKey(UUID id, boolean expandCategory) {
+        return PRODUCT_PREFIX + id + (expandCategory ? EXPANDED_SUFFIX : "");
+    }
+
+    public static String categoryKey(UUID id) {
+        return CATEGORY_PREFIX + id;
+    }
+
+    /**
+     * Devuelve la respuesta cacheada o la construye con {@code loader}; un cuerpo nulo es un 404 y no se guarda.
+     * El formato sale de {@code accept} y, si el cliente acepta gzip y hay variante comprimida, se envía esa.
+     */
+    public ResponseEntity<byte[]> respond(String key, String accept, String acceptEncoding, Supplier<?> loader) {
+        long now = System.currentTimeMillis();
+        MediaType format = negotiate(accept);
+        boolean gzipAccepted = acceptsGzip(acceptEncoding);
+        Variants variants = enabled ? entries.get(key, now) : null;
+        CachedBody cached = variants == null ? null : variants.get(format);
+        if (cached != null && cached.expiresAt > now) {
+            return ok(format, cached, gzipAccepted);
+        }
+        long loadedAt = generation.get();
+        // La generación forma parte de la clave: tras una escritura no se reutiliza una carga anterior
+        String flightKey = key + "#" + loadedAt;
+        // Se decide aquí y no en el hilo que carga: la marca de la petición no llega a las esperas ni a las recargas
+        boolean primary = now - invalidatedAt < primaryAfterInvalidationMs;
+        Supplier<Loaded> load = () -> new Loaded(primary ? ReadWriteRoutingDataSource.onPrimary(loader) : loader.get(), loadedAt);
+        if (cached != null && cached.expiresAt + staleWhileRevalidateMs > now) {
+            flights.refresh(flightKey, load, loaded -> store(key, format, loaded), refresher);
+            return ok(format, cached, gzipAccepted);
+        }
+        Loaded loaded;
+        try {
+            loaded = flights.load(flightKey, load);
+        } catch (DataAccessResourceFailureException | CannotCreateTransactionException | QueryTimeoutException e) {
+            Variants known = staleIfError ? lastKnownGood.get(key, now) : null;
+            CachedBody fallback = known == null ? null : known.get(format);
+            if (fallback == null) {
+                throw e;
+            }
+            return stale(format, fallback, gzipAccepted, now);
+        }
+        if (loaded.body == null) {
+            lastKnownGood.remove(key);
+            return ResponseEntity.notFound().build();
+        }
+        return ok(format, store(key, format, loaded), gzipAccepted);
+    }
+
+    private CachedBody store(String key, MediaType format, Loaded loaded) {
+        if (loaded.body == null) {
+            // Borrado durante la ventana stale: la próxima petición no encuentra entrada y responde 404
+            entries.remove(key);
+            lastKnownGood.remove(key);
+            return null;
+        }
+        byte[] serialized = serialize(format, loaded.body);
+        if (!enabled) {
+            return new CachedBody(serialized, null, 0);
+        }
+        long now = System.currentTimeMillis();
+        CachedBody entry = new CachedBody(
+            serialized,
+            serialized.length >= gzipMinBytes ? gzip(serialized) : null,
+            now + ttlMs
+        );
+        if (generation.get() == loaded.generation) {
+            put(entries, key, format, entry, now);
+            // Mismo objeto en los dos mapas: solo ocupa memoria aparte tras una invalidación
+            if (staleIfError) {
+                put(lastKnownGood, key, format, entry, now);
+            }
+        }
+        return entry;
+    }
+
+    private static void put(BoundedLruMap<String, Variants> map, String key, MediaType format, CachedBody entry, long now) {
+        map.computeIfAbsent(key, k -> new Variants(), now).put(format, entry);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int lastKnownGoodSize() {
+        return lastKnownGood.size();
+    }
+
+    // El formato de mayor calidad en Accept entre los soportados; sin Accept o con */*, JSON
+    MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType best = MediaType.APPLICATION_JSON;
+        double bestQuality = 0;
+        try {
+            for (MediaType requested : MediaType.parseMediaTypes(accept)) {
+                double quality = requested.getQualityValue();
+                if (quality <= bestQuality) {
+                    continue;
+                }
+                for (MediaType supported : mappers.keySet()) {
+                    if (requested.includes(supported)) {
+                        best = supported;
+                        bestQuality = quality;
+                        break;
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        return best;
+    }
+
+    private static ResponseEntity<byte[]> ok(MediaType format, CachedBody entry, boolean gzipAccepted) {
+        return body(ResponseEntity.ok(), format, entry, gzipAccepted);
+    }
+
+    // Último dato conocido con la base de datos caída; Age cuenta desde que se cargó
+    private ResponseEntity<byte[]> stale(MediaType format, CachedBody entry, boolean gzipAccepted, long now) {
+        long ageSeconds = Math.max(0, now - (entry.expiresAt - ttlMs)) / 1000;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .header(HttpHeaders.WARNING, STALE_WARNING)
+            .header(HttpHeaders.AGE, Long.toString(ageSeconds));
+        return body(builder, format, entry, gzipAccepted);
+    }
+
+    private static ResponseEntity<byte[]> body(
+        ResponseEntity.BodyBuilder builder,
+        MediaType format,
+        CachedBody entry,
+        boolean gzipAccepted
+    ) {
+        builder.contentType(format)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        // Con Content-Encoding ya fijado Tomcat no vuelve a comprimir
+        byte[] body = gzipAccepted && entry.gzip != null ? entry.gzip : entry.body;
+        if (body == entry.gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.contentLength(body.length).body(body);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] serialize(MediaType format, Object body) {
+        try {
+            return mappers.get(format).writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    @Override
+    public void evict(CatalogEntityType type, UUID id) {
+        invalidatedAt = System.currentTimeMillis();
+        generation.incrementAndGet();
+        if (type == CatalogEntityType.PRODUCT) {
+            entries.remove(productKey(id, false));
+            entries.remove(productKey(id, true));
+            entries.remove(productsKey(false));
+            entries.remove(productsKey(true));
+        } else {
+            entries.remove(categoryKey(id));
+            evictCategoryViews();
+        }
+    }
+
+    @Override
+    public void evictAll(CatalogEntityType type) {
+        invalidatedAt = System.currentTimeMillis();
+        generation.incrementAndGet();
+        if (type == CatalogEntityType.PRODUCT) {
+            entries.removeKeysIf(key -> key.startsWith(PRODUCT_PREFIX) || key.startsWith(PRODUCTS));
+        } else {
+            entries.removeKeysIf(key -> key.startsWith(CATEGORY_PREFIX));
+            evictCategoryViews();
+        }
+    }
+
+    @Override
+    public boolean evictOnLocalWrites() {
+        return true;
+    }
+
+    private void evictCategoryViews() {
+        // El listado y los productos con la categoría embebida
+        entries.remove(CATEGORIES);
+        entries.removeKeysIf(key -> key.endsWith(EXPANDED_SUFFIX));
+    }
+
+    private static final class Loaded {
+        private final Object body;
+        private final long generation;
+
+        private Loaded(Object body, long generation) {
+            this.body = body;
+            this.generation = generation;
+        }
+    }
+
+    // Variantes de formato de una clave
+    private static final class Variants {
+        private final Map<MediaType, CachedBody> byFormat = new ConcurrentHashMap<>(4);
+
+        private CachedBody get(MediaType format) {
+            return byFormat.get(format);
+        }
+
+        private void put(MediaType format, CachedBody body) {
+            byFormat.put(format, body);
+        }
+
+        private long expiresAt() {
+            return byFormat.values().stream().mapToLong(body -> body.expiresAt).max().orElse(0);
+        }
+    }
+
+    private static final class CachedBody {
+        private final byte[] body;
+        private final byte[] gzip;
+        private final long expiresAt;
+
+        private CachedBody(byte[] body, byte[] gzip, long expiresAt) {
+            this.body = body;
+            this.gzip = gzip;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.mantenimiento.adapter.incoming.web;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -9,11 +13,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.mantenimiento.adapter.incoming.dto.ApiErrorResponse;
+import com.example.mantenimiento.adapter.incoming.dto.BulkUserRegisterRequest;
+import com.example.mantenimiento.adapter.incoming.dto.BulkUserRegisterResponse;
 import com.example.mantenimiento.adapter.incoming.dto.UserRegisterRequest;
 import com.example.mantenimiento.adapter.incoming.dto.UserResponse;
 import com.example.mantenimiento.adapter.incoming.mapper.UserMapper;
+import com.example.mantenimiento.domain.constants.ErrorMessages;
+import com.example.mantenimiento.domain.exception.ValidationException;
 import com.example.mantenimiento.domain.model.User;
 import com.example.mantenimiento.usecase.UserUseCase;
+import com.example.mantenimiento.usecase.model.UserRegistrationOutcome;
 
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -21,6 +30,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 
@@ -76,5 +86,50 @@ public class UserController {
         User registered = userUseCase.register(user);
         return ResponseEntity.status(HttpStatus.CREATED).body(userMapper.toResponse(registered));
     }
-}
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Registro masivo de usuarios",
+        description = "Registra hasta 1000 usuarios en una sola petición y devuelve el resultado de cada uno. Requiere ROLE_ADMIN"
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+        required = true,
+        description = "Usuarios a registrar",
+        content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = BulkUserRegisterRequest.class))
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lote procesado; cada usuario indica CREATED, DUPLICATE o INVALID",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = BulkUserRegisterResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Lote vacío o demasiado grande",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ApiErrorResponse.class))
+        ),
+        @ApiResponse(responseCode = "401", description = "No autorizado"),
+        @ApiResponse(responseCode = "403", description = "Requiere ROLE_ADMIN")
+    })
+    public ResponseEntity<BulkUserRegisterResponse> registerBulk(@Valid @RequestBody BulkUserRegisterRequest request) {
+        List<UserRegistrationOutcome> outcomes = new ArrayList<>(request.getUsers().size());
+        List<User> valid = new ArrayList<>(request.getUsers().size());
+        for (UserRegisterRequest item : request.getUsers()) {
+            if (item == null) {
+                outcomes.add(UserRegistrationOutcome.invalid(null, ErrorMessages.USER_USERNAME_REQUIRED));
+                continue;
+            }
+            try {
+                valid.add(userMapper.toNewDomain(item));
+                outcomes.add(null);
+            } catch (ValidationException e) {
+                outcomes.add(UserRegistrationOutcome.invalid(item.getUsername(), e.getMessage()));
+            }
+        }
+
+        Iterator<UserRegistrationOutcome> registered = userUseCase.registerAll(valid).iterator();
+        outcomes.replaceAll(outcome -> outcome != null ? outcome : registered.next());
+        return ResponseEntity.ok(userMapper.toBulkResponse(outcomes));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Mapa concurrente limitado a {@code maxEntries} claves. Al añadir una clave con el mapa lleno se descartan
+ * las entradas caducadas según {@code expiresAt} y, si no basta, el 10 % de claves usadas hace más tiempo.
+ * Las lecturas no se bloquean; solo la limpieza, que hace un hilo a la vez.
+ */
+public final class BoundedLruMap<K, V> {
+    // Se libera este porcentaje de golpe: la ordenación por uso no se repite en cada alta
+    private static final int TRIM_PERCENT = 10;
+
+    private final Map<K, Node<V>> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final ToLongFunction<V> expiresAt;
+
+    /**
+     * @param expiresAt milisegundos a partir de los que la entrada sobra; {@code Long.MAX_VALUE} si no caduca
+     */
+    public BoundedLruMap(int maxEntries, ToLongFunction<V> expiresAt) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.expiresAt = expiresAt;
+    }
+
+    public V get(K key, long now) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        node.lastAccess = now;
+        return node.value;
+    }
+
+    public void put(K key, V value, long now) {
+        makeRoomFor(key, now);
+        entries.put(key, new Node<>(value, now));
+    }
+
+    public V computeIfAbsent(K key, Function<K, V> factory, long now) {
+        makeRoomFor(key, now);
+        Node<V> node = entries.computeIfAbsent(key, k -> new Node<>(factory.apply(k), now));
+        node.lastAccess = now;
+        return node.value;
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void removeKeysIf(Predicate<K> filter) {
+        entries.keySet().removeIf(filter);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void makeRoomFor(K key, long now) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            trim(now);
+        }
+    }
+
+    private void trim(long now) {
+        synchronized (entries) {
+            if (entries.size() < maxEntries) {
+                return;
+            }
+            entries.values().removeIf(node -> expiresAt.applyAsLong(node.value) <= now);
+            int excess = entries.size() - (maxEntries - Math.max(1, maxEntries * TRIM_PERCENT / 100));
+            if (excess <= 0) {
+                return;
+            }
+            List<K> leastRecentlyUsed = entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+            leastRecentlyUsed.forEach(entries::remove);
+        }
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private volatile long lastAccess;
+
+        private Node(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
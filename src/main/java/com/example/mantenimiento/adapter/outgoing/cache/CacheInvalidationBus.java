@@ -0,0 +1,212 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Bus de invalidación entre réplicas sobre LISTEN/NOTIFY de PostgreSQL. Cada escritura del catálogo
+ * publica {@code nodo:TIPO:id} con pg_notify dentro de la transacción en curso, obligatoria (Postgres solo
+ * lo entrega al confirmar) y cada instancia escucha en una conexión propia, fuera del pool, para
+ * desalojar las entradas de sus cachés locales. Las cachés que no se mantienen con las escrituras
+ * propias ({@link CacheInvalidationListener#evictOnLocalWrites()}) reciben además los avisos de este
+ * nodo tras el commit, aunque la difusión esté deshabilitada.
+ */
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final String ALL = "*";
+    private static final int POLL_TIMEOUT_MS = 5_000;
+    private static final long RECONNECT_DELAY_MS = 2_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectProvider<CacheInvalidationListener> listeners;
+    private final boolean enabled;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public CacheInvalidationBus(
+        JdbcTemplate jdbcTemplate,
+        DataSourceProperties dataSourceProperties,
+        ObjectProvider<CacheInvalidationListener> listeners,
+        @Value("${catalog.cache.invalidation.enabled:true}") boolean enabled,
+        @Value("${catalog.cache.invalidation.channel:catalog_invalidation}") String channel
+    ) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalStateException("catalog.cache.invalidation.channel no es un identificador válido: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.listeners = listeners;
+        this.enabled = enabled;
+        this.channel = channel;
+    }
+
+    public void publish(CatalogEntityType type, UUID id) {
+        send(type, id.toString());
+    }
+
+    public void publishAll(CatalogEntityType type) {
+        send(type, ALL);
+    }
+
+    private void send(CatalogEntityType type, String id) {
+        // Fuera de una transacción el aviso saldría antes de que el dato se confirme (o aunque no llegue a confirmarse)
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("La invalidación de " + type + " debe publicarse dentro de la transacción de la escritura");
+        }
+        String payload = nodeId + ":" + type.name() + ":" + id;
+        dispatchLocallyAfterCommit(payload);
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.execute("select pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) ps -> {
+            ps.setString(1, channel);
+            ps.setString(2, payload);
+            return ps.execute();
+        });
+    }
+
+    private void dispatchLocallyAfterCommit(String payload) {
+        // Tras el commit: antes, una lectura concurrente podría volver a cachear el dato anterior
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(payload, true);
+            }
+        });
+    }
+
+    void handle(String payload) {
+        dispatch(payload, false);
+    }
+
+    private void dispatch(String payload, boolean local) {
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3 || (!local && nodeId.equals(parts[0]))) {
+            // Las escrituras propias ya se despacharon localmente al confirmar
+            return;
+        }
+        CatalogEntityType type;
+        UUID id;
+        try {
+            type = CatalogEntityType.valueOf(parts[1]);
+            id = ALL.equals(parts[2]) ? null : UUID.fromString(parts[2]);
+        } catch (IllegalArgumentException e) {
+            log.warn("Aviso de invalidación no reconocido: {}", payload);
+            return;
+        }
+        for (CacheInvalidationListener listener : listeners) {
+            if (local && !listener.evictOnLocalWrites()) {
+                continue;
+            }
+            if (id == null) {
+                listener.evictAll(type);
+            } else {
+                listener.evict(type, id);
+            }
+        }
+    }
+
+    private void evictEverything() {
+        for (CacheInvalidationListener listener : listeners) {
+            for (CatalogEntityType type : CatalogEntityType.values()) {
+                listener.evictAll(type);
+            }
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword()
+            )) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnecting) {
+                    // Mientras no hubo conexión pudieron perderse avisos
+                    evictEverything();
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Conexión LISTEN {} perdida, reintentando: {}", channel, e.getMessage());
+                    reconnecting = true;
+                    sleepBeforeReconnect();
+                }
+            } catch (RuntimeException e) {
+                log.error("Error procesando avisos de invalidación", e);
+                reconnecting = true;
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import java.util.UUID;
+
+/**
+ * Caché local que debe descartar entradas cuando otra instancia modifica el catálogo.
+ */
+public interface CacheInvalidationListener {
+
+    void evict(CatalogEntityType type, UUID id);
+
+    // Se llama tras una escritura masiva o si se perdió la conexión de escucha y pudo perderse algún aviso
+    void evictAll(CatalogEntityType type);
+
+    // true si la caché no se actualiza con las escrituras de este nodo y también debe recibir sus avisos
+    default boolean evictOnLocalWrites() {
+        return false;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+/**
+ * Tipos de entidad del catálogo cuyas cachés en memoria se invalidan entre instancias.
+ */
+public enum CatalogEntityType {
+    PRODUCT,
+    CATEGORY
+}
@@ -0,0 +1,237 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import com.example.mantenimiento.adapter.outgoing.persistence.CategoryRepository;
+import com.example.mantenimiento.adapter.outgoing.persistence.ProductRepository;
+import com.example.mantenimiento.domain.id.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Filtros de Bloom con los ids existentes de productos y categorías, consultados antes de buscar por
+ * id: un id que el filtro descarta no existe y se responde 404 sin ir a la base de datos.
+ * Se reconstruyen periódicamente a partir de la tabla (los borrados solo dejan falsos positivos) y
+ * cada aviso de {@link CacheInvalidationBus}, propio o de otra instancia, añade el id. Si pudo perderse
+ * algún aviso ({@code evictAll}) el filtro deja pasar todas las consultas hasta reconstruirse.
+ * Sin el bus ({@code catalog.cache.invalidation.enabled=false}) las altas de otras instancias no llegan
+ * y el filtro no se activa. Un UUIDv7 más reciente que {@code catalog.id-filter.notify-lag-ms} puede
+ * estar confirmado en otra instancia sin que su aviso haya llegado: no se descarta.
+ */
+@Component
+public class CatalogIdFilter implements CacheInvalidationListener, SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(CatalogIdFilter.class);
+    // Margen para las altas entre dos reconstrucciones
+    private static final int GROWTH_FACTOR = 2;
+    private static final int MIN_EXPECTED_IDS = 1024;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final boolean enabled;
+    private final boolean invalidationEnabled;
+    private final long notifyLagMs;
+    private final double falsePositiveRate;
+    private final long rebuildIntervalMs;
+    private final Map<CatalogEntityType, TypeFilter> filters = new EnumMap<>(CatalogEntityType.class);
+
+    private volatile ScheduledExecutorService executor;
+
+    public CatalogIdFilter(
+        ProductRepository productRepository,
+        CategoryRepository categoryRepository,
+        MeterRegistry meterRegistry,
+        @Value("${catalog.id-filter.enabled:true}") boolean enabled,
+        @Value("${catalog.cache.invalidation.enabled:true}") boolean invalidationEnabled,
+        @Value("${catalog.id-filter.notify-lag-ms:10000}") long notifyLagMs,
+        @Value("${catalog.id-filter.false-positive-rate:0.01}") double falsePositiveRate,
+        @Value("${catalog.id-filter.rebuild-interval-ms:600000}") long rebuildIntervalMs
+    ) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.enabled = enabled;
+        this.invalidationEnabled = invalidationEnabled;
+        this.notifyLagMs = notifyLagMs;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildIntervalMs = rebuildIntervalMs;
+        for (CatalogEntityType type : CatalogEntityType.values()) {
+            filters.put(type, new TypeFilter(type, meterRegistry));
+        }
+    }
+
+    /**
+     * false si el id seguro que no existe. Mientras el filtro no está construido devuelve siempre true.
+     */
+    public boolean mightContain(CatalogEntityType type, UUID id) {
+        TypeFilter filter = filters.get(type);
+        BloomFilter current = filter.current;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(id) || isRecent(id)) {
+            filter.passed.increment();
+            return true;
+        }
+        filter.rejected.increment();
+        return false;
+    }
+
+    // Los ids que no son UUIDv7 son anteriores a su adopción y están en la tabla desde la reconstrucción
+    private boolean isRecent(UUID id) {
+        return id.version() == 7 && UuidV7.timestamp(id) > System.currentTimeMillis() - notifyLagMs;
+    }
+
+    // El filtro dejó pasar un id que luego no estaba en la base de datos
+    public void recordFalsePositive(CatalogEntityType type) {
+        TypeFilter filter = filters.get(type);
+        if (filter.current != null) {
+            filter.falsePositives.increment();
+        }
+    }
+
+    public void add(CatalogEntityType type, UUID id) {
+        TypeFilter filter = filters.get(type);
+        // building antes que current: si aún no hay reconstrucción en curso, su consulta ya verá esta alta
+        BloomFilter building = filter.building;
+        if (building != null) {
+            building.put(id);
+        }
+        BloomFilter current = filter.current;
+        if (current != null) {
+            current.put(id);
+        }
+    }
+
+    void rebuild(CatalogEntityType type) {
+        TypeFilter filter = filters.get(type);
+        int generation = filter.generation.get();
+        long count = type == CatalogEntityType.PRODUCT ? productRepository.count() : categoryRepository.count();
+        BloomFilter next = BloomFilter.create(Math.max(MIN_EXPECTED_IDS, count * GROWTH_FACTOR), falsePositiveRate);
+        // Publicado antes de leer los ids: las altas confirmadas a partir de aquí llegan por add()
+        filter.building = next;
+        List<UUID> ids = type == CatalogEntityType.PRODUCT ? productRepository.findAllIds() : categoryRepository.findAllIds();
+        ids.forEach(next::put);
+        if (filter.generation.get() == generation) {
+            filter.current = next;
+        }
+        filter.building = null;
+        log.debug("Filtro de ids de {} reconstruido: {} ids, {} bits, {} hashes",
+            type, next.insertions(), next.bitCount(), next.hashCount());
+    }
+
+    @Override
+    public void evict(CatalogEntityType type, UUID id) {
+        // Alta, modificación o borrado: añadir el id nunca produce falsos negativos
+        add(type, id);
+    }
+
+    @Override
+    public void evictAll(CatalogEntityType type) {
+        TypeFilter filter = filters.get(type);
+        filter.generation.incrementAndGet();
+        filter.current = null;
+        ScheduledExecutorService current = executor;
+        if (current != null) {
+            current.execute(() -> rebuildQuietly(type));
+        }
+    }
+
+    @Override
+    public boolean evictOnLocalWrites() {
+        return true;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!invalidationEnabled) {
+            log.info("Filtro de ids desactivado: sin el bus de invalidación no llegan las altas de otras instancias");
+            return;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-id-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (CatalogEntityType type : CatalogEntityType.values()) {
+            scheduler.scheduleWithFixedDelay(() -> rebuildQuietly(type), 0, rebuildIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        executor = scheduler;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = executor;
+        executor = null;
+        if (current != null) {
+            current.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    private void rebuildQuietly(CatalogEntityType type) {
+        try {
+            rebuild(type);
+        } catch (RuntimeException e) {
+            // Se reintenta en la siguiente reconstrucción; el filtro anterior sigue siendo válido
+            filters.get(type).building = null;
+            log.warn("No se pudo reconstruir el filtro de ids de {}: {}", type, e.getMessage());
+        }
+    }
+
+    private static final class TypeFilter {
+        private final Counter rejected;
+        private final Counter passed;
+        private final Counter falsePositives;
+        private final AtomicInteger generation = new AtomicInteger();
+        private volatile BloomFilter current;
+        private volatile BloomFilter building;
+
+        private TypeFilter(CatalogEntityType type, MeterRegistry registry) {
+            String tag = type.name().toLowerCase(Locale.ROOT);
+            rejected = lookups(registry, tag, "rejected");
+            passed = lookups(registry, tag, "passed");
+            falsePositives = lookups(registry, tag, "false_positive");
+            Gauge.builder("catalog.id_filter.expected_fpp", this, filter -> {
+                    BloomFilter bloom = filter.current;
+                    return bloom == null ? Double.NaN : bloom.expectedFalsePositiveRate();
+                })
+                .description("Tasa de falsos positivos estimada con la ocupación actual del filtro")
+                .tag("type", tag)
+                .register(registry);
+            Gauge.builder("catalog.id_filter.ids", this, filter -> {
+                    BloomFilter bloom = filter.current;
+                    return bloom == null ? 0 : bloom.insertions();
+                })
+                .tag("type", tag)
+                .register(registry);
+        }
+
+        private static Counter lookups(MeterRegistry registry, String type, String result) {
+            return Counter.builder("catalog.id_filter.lookups")
+                .description("Búsquedas por id según el filtro: rechazadas sin consulta, aceptadas y falsos positivos")
+                .tag("type", type)
+                .tag("result", result)
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import com.example.mantenimiento.domain.model.Category;
+import com.example.mantenimiento.domain.model.Product;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Copia inmutable del catálogo con tres índices de productos (por id, por categoría y por precio) y
+ * las categorías por id. Se lee sin bloqueos; cada cambio devuelve una copia nueva que comparte con
+ * esta todos los bloques de los índices que no toca ({@link ChunkedSortedList}).
+ */
+public final class CatalogSnapshot {
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+    // products.category_id admite NULL: un producto sin categoría va al principio en lugar de romper la carga
+    private static final Comparator<UUID> CATEGORY_ID = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<Product> BY_CATEGORY = Comparator.comparing(Product::getCategoryId, CATEGORY_ID).thenComparing(BY_ID);
+    private static final Comparator<Product> BY_PRICE = Comparator.comparing(Product::getPrice).thenComparing(BY_ID);
+    private static final Comparator<Category> CATEGORY_BY_ID = Comparator.comparing(Category::getId);
+
+    private final ChunkedSortedList<Product> byId;
+    private final ChunkedSortedList<Product> byCategory;
+    private final ChunkedSortedList<Product> byPrice;
+    private final ChunkedSortedList<Category> categories;
+
+    private CatalogSnapshot(
+        ChunkedSortedList<Product> byId,
+        ChunkedSortedList<Product> byCategory,
+        ChunkedSortedList<Product> byPrice,
+        ChunkedSortedList<Category> categories
+    ) {
+        this.byId = byId;
+        this.byCategory = byCategory;
+        this.byPrice = byPrice;
+        this.categories = categories;
+    }
+
+    public static CatalogSnapshot of(Collection<Category> categories, Collection<Product> products) {
+        return new CatalogSnapshot(
+            ChunkedSortedList.of(products, BY_ID),
+            ChunkedSortedList.of(products, BY_CATEGORY),
+            ChunkedSortedList.of(products, BY_PRICE),
+            ChunkedSortedList.of(categories, CATEGORY_BY_ID)
+        );
+    }
+
+    // Por id: con UUIDv7, en orden de alta
+    public List<Product> products() {
+        return byId.toList();
+    }
+
+    public int productCount() {
+        return byId.size();
+    }
+
+    public Optional<Product> product(UUID id) {
+        return Optional.ofNullable(byId.find(product -> product.getId().compareTo(id)));
+    }
+
+    public List<Product> productsInCategory(UUID categoryId) {
+        return byCategory.range(
+            product -> CATEGORY_ID.compare(product.getCategoryId(), categoryId) < 0 ? -1 : 1,
+            product -> Objects.equals(product.getCategoryId(), categoryId)
+        );
+    }
+
+    // Precio entre min y max, ambos incluidos, de menor a mayor
+    public List<Product> productsByPrice(BigDecimal min, BigDecimal max) {
+        return byPrice.range(
+            product -> product.getPrice().compareTo(min) < 0 ? -1 : 1,
+            product -> product.getPrice().compareTo(max) <= 0
+        );
+    }
+
+    public List<Category> categories() {
+        return categories.toList();
+    }
+
+    public Optional<Category> category(UUID id) {
+        return Optional.ofNullable(categories.find(category -> category.getId().compareTo(id)));
+    }
+
+    public Map<UUID, Category> categories(Collection<UUID> ids) {
+        Map<UUID, Category> result = new HashMap<>();
+        for (UUID id : ids) {
+            category(id).ifPresent(category -> result.put(id, category));
+        }
+        return result;
+    }
+
+    public CatalogSnapshot withProduct(Product product) {
+        Product previous = byId.find(existing -> existing.getId().compareTo(product.getId()));
+        ChunkedSortedList<Product> nextByCategory = byCategory;
+        ChunkedSortedList<Product> nextByPrice = byPrice;
+        if (previous != null) {
+            nextByCategory = nextByCategory.without(existing -> BY_CATEGORY.compare(existing, previous));
+            nextByPrice = nextByPrice.without(existing -> BY_PRICE.compare(existing, previous));
+        }
+        return new CatalogSnapshot(
+            byId.with(product),
+            nextByCategory.with(product),
+            nextByPrice.with(product),
+            categories
+        );
+    }
+
+    public CatalogSnapshot withoutProduct(UUID id) {
+        Product previous = byId.find(existing -> existing.getId().compareTo(id));
+        if (previous == null) {
+            return this;
+        }
+        return new CatalogSnapshot(
+            byId.without(existing -> existing.getId().compareTo(id)),
+            byCategory.without(existing -> BY_CATEGORY.compare(existing, previous)),
+            byPrice.without(existing -> BY_PRICE.compare(existing, previous)),
+            categories
+        );
+    }
+
+    public CatalogSnapshot withCategory(Category category) {
+        return new CatalogSnapshot(byId, byCategory, byPrice, categories.with(category));
+    }
+
+    // Quita la categoría y sus productos (borrado en cascada; con RESTRICT no los hay)
+    public CatalogSnapshot withoutCategory(UUID id) {
+        CatalogSnapshot next = this;
+        for (Product product : productsInCategory(id)) {
+            next = next.withoutProduct(product.getId());
+        }
+        return new CatalogSnapshot(
+            next.byId,
+            next.byCategory,
+            next.byPrice,
+            categories.without(category -> category.getId().compareTo(id))
+        );
+    }
+
+    public CatalogSnapshot withProductsMoved(UUID fromCategoryId, UUID toCategoryId) {
+        CatalogSnapshot next = this;
+        for (Product product : productsInCategory(fromCategoryId)) {
+            next = next.withProduct(product.withUpdatedData(
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                toCategoryId
+            ));
+        }
+        return next;
+    }
+
+    // Para comprobar que un cambio no copia el índice por id entero
+    boolean sharesProductChunk(CatalogSnapshot other, int chunk) {
+        return byId.sharesChunk(other.byId, chunk);
+    }
+}
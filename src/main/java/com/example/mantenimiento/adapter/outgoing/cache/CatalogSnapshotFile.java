@@ -0,0 +1,215 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import com.example.mantenimiento.domain.model.Category;
+import com.example.mantenimiento.domain.model.Product;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Volcado binario del catálogo para arrancar sin consultar la base de datos. El fichero se lee con
+ * {@link MappedByteBuffer} y se decodifica una sola vez a un {@link CatalogSnapshot}: registros de tamaño
+ * fijo (productos ordenados por id) y los textos UTF-8 al final.
+ * <pre>
+ * cabecera (48 bytes): magic "CATS", versión de formato, capturedAt, nº categorías, nº productos,
+ *                      longitud del cuerpo, CRC32C del cuerpo
+ * categorías (24 bytes): id msb, id lsb, offset y longitud del nombre
+ * productos  (64 bytes): id msb, id lsb, categoría msb, lsb, precio sin escala, escala, flags (bit 0: con
+ *                        categoría), offset y longitud de nombre y descripción (longitud -1 si es null)
+ * textos:                UTF-8, offsets relativos al inicio de esta sección
+ * </pre>
+ * Un fichero con otro magic, otra versión o checksum distinto se rechaza con {@link IOException}.
+ */
+public final class CatalogSnapshotFile {
+    static final int MAGIC = 0x43415453;
+    // 2: id de categoría en el registro del producto, aunque la categoría no esté en el volcado
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_BYTES = 48;
+    private static final int CATEGORY_BYTES = 24;
+    private static final int PRODUCT_BYTES = 64;
+    private static final int HAS_CATEGORY = 1;
+
+    private final ByteBuffer buffer;
+    private final long capturedAt;
+    private final int categoryCount;
+    private final int productCount;
+    private final int productsStart;
+    private final int textStart;
+
+    private CatalogSnapshotFile(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("No es un volcado del catálogo");
+        }
+        int version = buffer.getInt(4);
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Versión de volcado no soportada: " + version);
+        }
+        this.capturedAt = buffer.getLong(8);
+        this.categoryCount = buffer.getInt(16);
+        this.productCount = buffer.getInt(20);
+        long payloadLength = buffer.getLong(24);
+        if (categoryCount < 0 || productCount < 0 || payloadLength != buffer.capacity() - HEADER_BYTES) {
+            throw new IOException("Volcado del catálogo truncado");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(HEADER_BYTES, (int) payloadLength));
+        if (crc.getValue() != buffer.getLong(32)) {
+            throw new IOException("Checksum del volcado del catálogo incorrecto");
+        }
+        this.buffer = buffer;
+        this.productsStart = HEADER_BYTES + categoryCount * CATEGORY_BYTES;
+        this.textStart = productsStart + productCount * PRODUCT_BYTES;
+    }
+
+    public static CatalogSnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // El mapeo sigue vigente tras cerrar el canal
+            return new CatalogSnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Escribe en un fichero temporal del mismo directorio y lo renombra: un lector nunca ve un volcado a medias.
+     */
+    public static void write(Path path, CatalogSnapshot snapshot, long capturedAt) throws IOException {
+        List<Category> categories = snapshot.categories();
+        List<Product> products = snapshot.products();
+        List<byte[]> texts = new ArrayList<>();
+        long textBytes = 0;
+        for (Category category : categories) {
+            textBytes += add(texts, category.getName());
+        }
+        for (Product product : products) {
+            textBytes += add(texts, product.getName());
+            textBytes += add(texts, product.getDescription());
+        }
+        long size = HEADER_BYTES + (long) categories.size() * CATEGORY_BYTES + (long) products.size() * PRODUCT_BYTES + textBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Catálogo demasiado grande para un volcado: " + size + " bytes");
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                out.position(HEADER_BYTES);
+                int textOffset = 0;
+                int text = 0;
+                for (Category category : categories) {
+                    out.putLong(category.getId().getMostSignificantBits()).putLong(category.getId().getLeastSignificantBits());
+                    textOffset = putText(out, textOffset, texts.get(text++));
+                }
+                for (Product product : products) {
+                    BigDecimal price = product.getPrice();
+                    UUID categoryId = product.getCategoryId();
+                    out.putLong(product.getId().getMostSignificantBits()).putLong(product.getId().getLeastSignificantBits());
+                    out.putLong(categoryId == null ? 0 : categoryId.getMostSignificantBits())
+                        .putLong(categoryId == null ? 0 : categoryId.getLeastSignificantBits());
+                    out.putLong(price.unscaledValue().longValueExact()).putInt(price.scale());
+                    out.putInt(categoryId == null ? 0 : HAS_CATEGORY);
+                    textOffset = putText(out, textOffset, texts.get(text++));
+                    textOffset = putText(out, textOffset, texts.get(text++));
+                }
+                for (byte[] bytes : texts) {
+                    if (bytes != null) {
+                        out.put(bytes);
+                    }
+                }
+                CRC32C crc = new CRC32C();
+                crc.update(out.slice(HEADER_BYTES, (int) size - HEADER_BYTES));
+                out.putInt(0, MAGIC)
+                    .putInt(4, FORMAT_VERSION)
+                    .putLong(8, capturedAt)
+                    .putInt(16, categories.size())
+                    .putInt(20, products.size())
+                    .putLong(24, size - HEADER_BYTES)
+                    .putLong(32, crc.getValue());
+                out.force();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // Momento de la carga desde la base de datos que originó el volcado
+    public long capturedAt() {
+        return capturedAt;
+    }
+
+    public int productCount() {
+        return productCount;
+    }
+
+    public int categoryCount() {
+        return categoryCount;
+    }
+
+    public Category category(int index) {
+        int at = HEADER_BYTES + index * CATEGORY_BYTES;
+        return Category.builder()
+            .id(new UUID(buffer.getLong(at), buffer.getLong(at + 8)))
+            .name(text(at + 16))
+            .build();
+    }
+
+    public Product product(int index) {
+        int at = productsStart + index * PRODUCT_BYTES;
+        boolean hasCategory = (buffer.getInt(at + 44) & HAS_CATEGORY) != 0;
+        return Product.builder()
+            .id(new UUID(buffer.getLong(at), buffer.getLong(at + 8)))
+            .categoryId(hasCategory ? new UUID(buffer.getLong(at + 16), buffer.getLong(at + 24)) : null)
+            .price(new BigDecimal(BigInteger.valueOf(buffer.getLong(at + 32)), buffer.getInt(at + 40)))
+            .name(text(at + 48))
+            .description(text(at + 56))
+            .build();
+    }
+
+    public CatalogSnapshot toSnapshot() {
+        List<Category> categories = new ArrayList<>(categoryCount);
+        for (int i = 0; i < categoryCount; i++) {
+            categories.add(category(i));
+        }
+        List<Product> products = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            products.add(product(i));
+        }
+        return CatalogSnapshot.of(categories, products);
+    }
+
+    private String text(int fieldAt) {
+        int length = buffer.getInt(fieldAt + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(textStart + buffer.getInt(fieldAt), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int add(List<byte[]> texts, String value) {
+        byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        texts.add(bytes);
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static int putText(ByteBuffer out, int offset, byte[] bytes) {
+        out.putInt(offset).putInt(bytes == null ? -1 : bytes.length);
+        return bytes == null ? offset : offset + bytes.length;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import com.example.mantenimiento.adapter.outgoing.persistence.CategoryRepository;
+import com.example.mantenimiento.adapter.outgoing.persistence.entity.CategoryEntity;
+import com.example.mantenimiento.adapter.outgoing.persistence.mapper.CategoryEntityMapper;
+import com.example.mantenimiento.domain.model.Category;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copia en memoria de las categorías (pocas y muy leídas). Se carga completa en el primer uso y
+ * descarta entradas con los avisos de {@link CacheInvalidationBus}, también los de este nodo tras el commit:
+ * una escritura que se deshace no deja rastro. Un fallo de búsqueda consulta la base de datos.
+ */
+@Component
+public class CategoryCache implements CacheInvalidationListener {
+    private final CategoryRepository categoryRepository;
+    private final CategoryEntityMapper categoryEntityMapper;
+    private volatile Map<UUID, Category> categories;
+
+    public CategoryCache(CategoryRepository categoryRepository, CategoryEntityMapper categoryEntityMapper) {
+        this.categoryRepository = categoryRepository;
+        this.categoryEntityMapper = categoryEntityMapper;
+    }
+
+    public Optional<Category> get(UUID id) {
+        Category cached = categories().get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Category> loaded = categoryRepository.findById(id).map(categoryEntityMapper::toDomain);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public Map<UUID, Category> getAll(Collection<UUID> ids) {
+        Map<UUID, Category> cached = categories();
+        Map<UUID, Category> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : ids) {
+            Category category = cached.get(id);
+            if (category != null) {
+                result.put(id, category);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            // Un solo SELECT ... IN para todos los fallos
+            for (CategoryEntity entity : categoryRepository.findAllById(missing)) {
+                Category category = categoryEntityMapper.toDomain(entity);
+                put(category);
+                result.put(category.getId(), category);
+            }
+        }
+        return result;
+    }
+
+    public boolean exists(UUID id) {
+        return get(id).isPresent();
+    }
+
+    public void put(Category category) {
+        categories().put(category.getId(), category);
+    }
+
+    public void evict(UUID id) {
+        categories().remove(id);
+    }
+
+    public void invalidateAll() {
+        categories = null;
+    }
+
+    @Override
+    public void evict(CatalogEntityType type, UUID id) {
+        if (type == CatalogEntityType.CATEGORY) {
+            evict(id);
+        }
+    }
+
+    @Override
+    public void evictAll(CatalogEntityType type) {
+        if (type == CatalogEntityType.CATEGORY) {
+            invalidateAll();
+        }
+    }
+
+    // Tras el commit: un desalojo dentro de la transacción lo deshace una lectura concurrente del dato anterior
+    @Override
+    public boolean evictOnLocalWrites() {
+        return true;
+    }
+
+    private Map<UUID, Category> categories() {
+        Map<UUID, Category> current = categories;
+        if (current == null) {
+            synchronized (this) {
+                current = categories;
+                if (current == null) {
+                    current = new ConcurrentHashMap<>();
+                    for (CategoryEntity entity : categoryRepository.findAll()) {
+                        current.put(entity.getId(), categoryEntityMapper.toDomain(entity));
+                    }
+                    categories = current;
+                }
+            }
+        }
+        return current;
+    }
+}
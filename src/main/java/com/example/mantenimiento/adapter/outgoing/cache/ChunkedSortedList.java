@@ -0,0 +1,211 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Lista ordenada inmutable repartida en bloques de hasta {@link #MAX_CHUNK} elementos. Una modificación
+ * copia solo el bloque afectado y el array de referencias a bloques; el resto se comparte con la
+ * versión anterior, que sigue siendo válida para quien la esté leyendo.
+ */
+final class ChunkedSortedList<T> {
+    static final int MAX_CHUNK = 512;
+
+    private final Comparator<? super T> order;
+    private final Object[][] chunks;
+    private final int size;
+
+    private ChunkedSortedList(Comparator<? super T> order, Object[][] chunks, int size) {
+        this.order = order;
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    // Con claves repetidas según order se queda el último valor
+    static <T> ChunkedSortedList<T> of(Collection<? extends T> values, Comparator<? super T> order) {
+        Object[] sorted = values.toArray();
+        @SuppressWarnings("unchecked")
+        Comparator<Object> comparator = (Comparator<Object>) order;
+        Arrays.sort(sorted, comparator);
+        int unique = 0;
+        for (Object value : sorted) {
+            if (unique > 0 && comparator.compare(sorted[unique - 1], value) == 0) {
+                sorted[unique - 1] = value;
+            } else {
+                sorted[unique++] = value;
+            }
+        }
+        Object[][] chunks = new Object[(unique + MAX_CHUNK - 1) / MAX_CHUNK][];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = Arrays.copyOfRange(sorted, i * MAX_CHUNK, Math.min(unique, (i + 1) * MAX_CHUNK));
+        }
+        return new ChunkedSortedList<>(order, chunks, unique);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int chunkCount() {
+        return chunks.length;
+    }
+
+    /**
+     * El elemento para el que {@code probe} devuelve 0; probe compara el elemento con la clave buscada
+     * con el mismo criterio que el orden de la lista.
+     */
+    T find(ToIntFunction<? super T> probe) {
+        int chunk = chunkFor(probe);
+        if (chunk < 0) {
+            return null;
+        }
+        int index = indexIn(chunks[chunk], probe);
+        return index >= 0 ? element(chunks[chunk][index]) : null;
+    }
+
+    List<T> toList() {
+        List<T> result = new ArrayList<>(size);
+        for (Object[] chunk : chunks) {
+            for (Object value : chunk) {
+                result.add(element(value));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Elementos desde el primero para el que {@code from} devuelve >= 0, mientras {@code whileTrue} se cumpla.
+     */
+    List<T> range(ToIntFunction<? super T> from, Predicate<? super T> whileTrue) {
+        List<T> result = new ArrayList<>();
+        int chunk = chunkFor(from);
+        if (chunk < 0) {
+            return result;
+        }
+        int index = indexIn(chunks[chunk], from);
+        index = index >= 0 ? index : -index - 1;
+        for (; chunk < chunks.length; chunk++, index = 0) {
+            Object[] values = chunks[chunk];
+            for (; index < values.length; index++) {
+                T value = element(values[index]);
+                if (!whileTrue.test(value)) {
+                    return result;
+                }
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    // Inserta o sustituye el elemento igual según el orden
+    ChunkedSortedList<T> with(T value) {
+        if (chunks.length == 0) {
+            return new ChunkedSortedList<>(order, new Object[][]{{value}}, 1);
+        }
+        ToIntFunction<T> probe = element -> order.compare(element, value);
+        int chunk = chunkFor(probe);
+        chunk = chunk < 0 ? chunks.length - 1 : chunk;
+        Object[] values = chunks[chunk];
+        int index = indexIn(values, probe);
+        if (index >= 0) {
+            Object[] replaced = values.clone();
+            replaced[index] = value;
+            return replaceChunk(chunk, replaced, size);
+        }
+        int insertAt = -index - 1;
+        Object[] grown = new Object[values.length + 1];
+        System.arraycopy(values, 0, grown, 0, insertAt);
+        grown[insertAt] = value;
+        System.arraycopy(values, insertAt, grown, insertAt + 1, values.length - insertAt);
+        if (grown.length <= MAX_CHUNK) {
+            return replaceChunk(chunk, grown, size + 1);
+        }
+        // Bloque lleno: se parte en dos mitades
+        int half = grown.length / 2;
+        Object[][] next = new Object[chunks.length + 1][];
+        System.arraycopy(chunks, 0, next, 0, chunk);
+        next[chunk] = Arrays.copyOfRange(grown, 0, half);
+        next[chunk + 1] = Arrays.copyOfRange(grown, half, grown.length);
+        System.arraycopy(chunks, chunk + 1, next, chunk + 2, chunks.length - chunk - 1);
+        return new ChunkedSortedList<>(order, next, size + 1);
+    }
+
+    ChunkedSortedList<T> without(ToIntFunction<? super T> probe) {
+        int chunk = chunkFor(probe);
+        if (chunk < 0) {
+            return this;
+        }
+        Object[] values = chunks[chunk];
+        int index = indexIn(values, probe);
+        if (index < 0) {
+            return this;
+        }
+        if (values.length == 1) {
+            Object[][] next = new Object[chunks.length - 1][];
+            System.arraycopy(chunks, 0, next, 0, chunk);
+            System.arraycopy(chunks, chunk + 1, next, chunk, chunks.length - chunk - 1);
+            return new ChunkedSortedList<>(order, next, size - 1);
+        }
+        Object[] shrunk = new Object[values.length - 1];
+        System.arraycopy(values, 0, shrunk, 0, index);
+        System.arraycopy(values, index + 1, shrunk, index, values.length - index - 1);
+        return replaceChunk(chunk, shrunk, size - 1);
+    }
+
+    // true si las dos versiones comparten el bloque en la posición indicada
+    boolean sharesChunk(ChunkedSortedList<T> other, int chunk) {
+        return chunk < chunks.length && chunk < other.chunks.length && chunks[chunk] == other.chunks[chunk];
+    }
+
+    private ChunkedSortedList<T> replaceChunk(int chunk, Object[] values, int newSize) {
+        Object[][] next = chunks.clone();
+        next[chunk] = values;
+        return new ChunkedSortedList<>(order, next, newSize);
+    }
+
+    // Primer bloque cuyo último elemento es >= la clave; -1 si la clave va después de todos
+    private int chunkFor(ToIntFunction<? super T> probe) {
+        int low = 0;
+        int high = chunks.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Object[] values = chunks[mid];
+            if (probe.applyAsInt(element(values[values.length - 1])) >= 0) {
+                found = mid;
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return found;
+    }
+
+    // Como Arrays.binarySearch: índice si está, (-(punto de inserción) - 1) si no
+    private int indexIn(Object[] values, ToIntFunction<? super T> probe) {
+        int low = 0;
+        int high = values.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = probe.applyAsInt(element(values[mid]));
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T element(Object value) {
+        return (T) value;
+    }
+}
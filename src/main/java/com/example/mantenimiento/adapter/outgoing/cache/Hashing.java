@@ -0,0 +1,21 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+/**
+ * Mezcla de bits para repartir ids en los filtros.
+ */
+final class Hashing {
+
+    private Hashing() {
+        throw new AssertionError("No se debe instanciar esta clase");
+    }
+
+    // Finalizador de MurmurHash3: los UUIDv7 comparten los bits altos de la marca de tiempo
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
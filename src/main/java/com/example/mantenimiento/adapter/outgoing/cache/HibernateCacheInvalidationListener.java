@@ -0,0 +1,41 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import com.example.mantenimiento.adapter.outgoing.persistence.entity.CategoryEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Desaloja la caché de segundo nivel de Hibernate, que también es local a cada instancia.
+ */
+@Component
+public class HibernateCacheInvalidationListener implements CacheInvalidationListener {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public HibernateCacheInvalidationListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void evict(CatalogEntityType type, UUID id) {
+        if (type == CatalogEntityType.CATEGORY) {
+            entityManagerFactory.getCache().evict(CategoryEntity.class, id);
+            evictQueryResults();
+        }
+    }
+
+    @Override
+    public void evictAll(CatalogEntityType type) {
+        if (type == CatalogEntityType.CATEGORY) {
+            entityManagerFactory.getCache().evict(CategoryEntity.class);
+            evictQueryResults();
+        }
+    }
+
+    private void evictQueryResults() {
+        // Las marcas de tiempo de tabla son locales: el listado cacheado no ve escrituras de otro nodo
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import com.example.mantenimiento.adapter.outgoing.persistence.CatalogChange;
+import com.example.mantenimiento.adapter.outgoing.persistence.CatalogChangeRepository;
+import com.example.mantenimiento.adapter.outgoing.persistence.CategoryRepository;
+import com.example.mantenimiento.adapter.outgoing.persistence.ProductRepository;
+import com.example.mantenimiento.adapter.outgoing.persistence.mapper.CategoryEntityMapper;
+import com.example.mantenimiento.adapter.outgoing.persistence.mapper.ProductEntityMapper;
+import com.example.mantenimiento.domain.model.Category;
+import com.example.mantenimiento.domain.model.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Modo de catálogo en memoria ({@code catalog.in-memory.enabled}): todo el catálogo se carga al
+ * arrancar en un {@link CatalogSnapshot} y los casos de uso leen de él sin ir a la base de datos.
+ * Las escrituras de este nodo publican una copia nueva tras el commit; los avisos de otras instancias
+ * recargan el id afectado desde el primario y los avisos masivos, el catálogo entero. Los cambios se
+ * aplican de uno en uno; las lecturas solo leen la referencia actual. Las cargas completas consultan la
+ * base de datos sin ese bloqueo y solo lo toman para publicar el resultado.
+ * <p>
+ * Con {@code catalog.in-memory.snapshot-file} la copia se vuelca periódicamente a disco
+ * ({@link CatalogSnapshotFile}); al arrancar se decodifica ese volcado, se sirve de inmediato y en segundo
+ * plano se le aplican los cambios posteriores del feed de cambios ({@link CatalogChangeRepository}).
+ */
+@Component
+public class InMemoryCatalog implements CacheInvalidationListener, SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(InMemoryCatalog.class);
+    // Holgura para el desfase entre el reloj de la aplicación (marca del volcado) y el de la base de datos
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(1);
+    private static final int CATCH_UP_PAGE_SIZE = 1_000;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final CatalogChangeRepository changeRepository;
+    private final ProductEntityMapper productEntityMapper;
+    private final CategoryEntityMapper categoryEntityMapper;
+    // Transacción de escritura: las recargas van al primario, sin el retraso de las réplicas
+    private final TransactionTemplate primaryReads;
+    private final boolean enabled;
+    private final long retryDelayMs;
+    private final Path snapshotFile;
+    private final long snapshotIntervalMs;
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+    // Una carga completa o puesta al día a la vez; no bloquea los cambios
+    private final Object loadLock = new Object();
+    // Cambios aplicados mientras una carga lee la base de datos, null si no hay ninguna. Se repiten sobre
+    // lo leído, que puede ser anterior a ellos; fijan el estado de un id, así que repetirlos no altera nada
+    private List<UnaryOperator<CatalogSnapshot>> appliedDuringLoad;
+
+    // Inicio de la última carga o puesta al día desde la base de datos; 0 mientras se sirve un volcado sin poner al día
+    private volatile long loadedAt;
+    // Marca del volcado cargado al arrancar
+    private volatile long restoredAt;
+    private volatile CatalogSnapshot lastWritten;
+
+    private volatile ScheduledExecutorService executor;
+
+    public InMemoryCatalog(
+        ProductRepository productRepository,
+        CategoryRepository categoryRepository,
+        CatalogChangeRepository changeRepository,
+        ProductEntityMapper productEntityMapper,
+        CategoryEntityMapper categoryEntityMapper,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        @Value("${catalog.in-memory.enabled:false}") boolean enabled,
+        @Value("${catalog.in-memory.retry-delay-ms:10000}") long retryDelayMs,
+        @Value("${catalog.in-memory.snapshot-file:}") String snapshotFile,
+        @Value("${catalog.in-memory.snapshot-interval-ms:300000}") long snapshotIntervalMs
+    ) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.changeRepository = changeRepository;
+        this.productEntityMapper = productEntityMapper;
+        this.categoryEntityMapper = categoryEntityMapper;
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retryDelayMs = retryDelayMs;
+        this.snapshotFile = snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.snapshotIntervalMs = snapshotIntervalMs;
+        Gauge.builder("catalog.in_memory.products", snapshot, current -> {
+                CatalogSnapshot loaded = current.get();
+                return loaded == null ? 0 : loaded.productCount();
+            })
+            .description("Productos en la copia en memoria del catálogo")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Copia vigente del catálogo; null con el modo deshabilitado o mientras no se ha cargado, y entonces
+     * se lee de la base de datos.
+     */
+    public CatalogSnapshot current() {
+        return snapshot.get();
+    }
+
+    /**
+     * Aplica {@code change} a la copia vigente tras el commit de la transacción en curso (o ya, si no hay).
+     */
+    public void publishAfterCommit(UnaryOperator<CatalogSnapshot> change) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(UnaryOperator<CatalogSnapshot> change) {
+        CatalogSnapshot current = snapshot.get();
+        if (current != null) {
+            snapshot.set(change.apply(current));
+        }
+        if (appliedDuringLoad != null) {
+            appliedDuringLoad.add(change);
+        }
+    }
+
+    void reloadAll() {
+        synchronized (loadLock) {
+            long startedAt = System.currentTimeMillis();
+            beginLoad();
+            try {
+                CatalogSnapshot loaded = primaryReads.execute(status -> {
+                    List<Category> categories = categoryRepository.findAll().stream().map(categoryEntityMapper::toDomain).toList();
+                    List<Product> products = productRepository.findAll().stream().map(productEntityMapper::toDomain).toList();
+                    return CatalogSnapshot.of(categories, products);
+                });
+                publishLoaded(catalog -> loaded);
+                loadedAt = startedAt;
+                log.info("Catálogo en memoria cargado: {} productos, {} categorías",
+                    loaded.productCount(), loaded.categories().size());
+            } finally {
+                endLoad();
+            }
+        }
+    }
+
+    private synchronized void beginLoad() {
+        appliedDuringLoad = new ArrayList<>();
+    }
+
+    private synchronized void endLoad() {
+        appliedDuringLoad = null;
+    }
+
+    // Publica lo leído de la base de datos y repite encima los cambios aplicados desde que empezó la carga
+    private synchronized void publishLoaded(UnaryOperator<CatalogSnapshot> loaded) {
+        CatalogSnapshot next = loaded.apply(snapshot.get());
+        for (UnaryOperator<CatalogSnapshot> change : appliedDuringLoad) {
+            next = change.apply(next);
+        }
+        snapshot.set(next);
+    }
+
+    // Bajo el mismo bloqueo que las escrituras locales: ninguna puede colarse entre la lectura y el cambio
+    synchronized void reload(CatalogEntityType type, UUID id) {
+        // Sin copia y sin carga en curso no hay nada que actualizar
+        if (snapshot.get() == null && appliedDuringLoad == null) {
+            return;
+        }
+        // findAllById es una consulta: no pasa por la caché de segundo nivel, que puede no estar desalojada aún
+        if (type == CatalogEntityType.PRODUCT) {
+            Optional<Product> product = primaryReads.execute(status -> productRepository.findAllById(Set.of(id))
+                .stream().findFirst().map(productEntityMapper::toDomain));
+            apply(catalog -> product.map(catalog::withProduct).orElseGet(() -> catalog.withoutProduct(id)));
+        } else {
+            Optional<Category> category = primaryReads.execute(status -> categoryRepository.findAllById(Set.of(id))
+                .stream().findFirst().map(categoryEntityMapper::toDomain));
+            apply(catalog -> category.map(catalog::withCategory).orElseGet(() -> catalog.withoutCategory(id)));
+        }
+    }
+
+    @Override
+    public void evict(CatalogEntityType type, UUID id) {
+        submit(() -> reload(type, id));
+    }
+
+    @Override
+    public void evictAll(CatalogEntityType type) {
+        submit(this::reloadAll);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "in-memory-catalog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = scheduler;
+        if (loadSnapshotFile()) {
+            // Se sirve el volcado mientras se pone al día en segundo plano
+            scheduler.execute(this::catchUp);
+        } else {
+            try {
+                reloadAll();
+            } catch (RuntimeException e) {
+                // Hasta que cargue, las lecturas van a la base de datos
+                log.warn("No se pudo cargar el catálogo en memoria, se reintenta en {} ms: {}", retryDelayMs, e.getMessage());
+                scheduler.schedule(this::loadUntilReady, retryDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (snapshotFile != null) {
+            scheduler.scheduleWithFixedDelay(this::writeSnapshotFile, 0, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = executor;
+        executor = null;
+        if (current != null) {
+            current.shutdownNow();
+            writeSnapshotFile();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    boolean loadSnapshotFile() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return false;
+        }
+        try {
+            CatalogSnapshotFile file = CatalogSnapshotFile.open(snapshotFile);
+            CatalogSnapshot loaded = file.toSnapshot();
+            snapshot.set(loaded);
+            restoredAt = file.capturedAt();
+            log.info("Catálogo en memoria cargado del volcado {}: {} productos, {} s de antigüedad",
+                snapshotFile, loaded.productCount(), (System.currentTimeMillis() - file.capturedAt()) / 1000);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Se ignora el volcado del catálogo {}: {}", snapshotFile, e.getMessage());
+            return false;
+        }
+    }
+
+    // Un volcado más antiguo que la retención de lápidas puede haber perdido borrados: entonces, carga completa
+    void catchUp() {
+        Instant since = Instant.ofEpochMilli(restoredAt).minus(CATCH_UP_MARGIN);
+        try {
+            if (changeRepository.isRetained(since, changeRepository.horizon(Duration.ZERO))) {
+                replayChangesSince(since);
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo poner al día el volcado del catálogo, se recarga entero: {}", e.getMessage());
+        }
+        loadUntilReady();
+    }
+
+    void replayChangesSince(Instant since) {
+        synchronized (loadLock) {
+            long startedAt = System.currentTimeMillis();
+            beginLoad();
+            try {
+                int applied = primaryReads.execute(status -> {
+                    Instant until = changeRepository.horizon(Duration.ZERO);
+                    // Categorías primero: los productos reasignados o nuevos pueden apuntar a una categoría nueva
+                    return replay(changeRepository::findCategoryChanges, since, until, (catalog, change) -> change.isDeleted()
+                            ? catalog.withoutCategory(change.getId())
+                            : catalog.withCategory(change.getValue()))
+                        + replay(changeRepository::findProductChanges, since, until, (catalog, change) -> change.isDeleted()
+                            ? catalog.withoutProduct(change.getId())
+                            : catalog.withProduct(change.getValue()));
+                });
+                loadedAt = startedAt;
+                log.info("Volcado del catálogo puesto al día con {} cambios", applied);
+            } finally {
+                endLoad();
+            }
+        }
+    }
+
+    private <T> int replay(
+        CatalogChangeRepository.ChangeQuery<T> query,
+        Instant since,
+        Instant until,
+        BiFunction<CatalogSnapshot, CatalogChange<T>, CatalogSnapshot> apply
+    ) {
+        int applied = 0;
+        Instant after = since;
+        UUID afterId = new UUID(0, 0);
+        int pageSize;
+        do {
+            // La consulta, fuera del bloqueo; solo se bloquea para aplicar la página
+            List<CatalogChange<T>> page = query.find(after, afterId, until, CATCH_UP_PAGE_SIZE);
+            publishLoaded(catalog -> {
+                for (CatalogChange<T> change : page) {
+                    catalog = apply.apply(catalog, change);
+                }
+                return catalog;
+            });
+            pageSize = page.size();
+            if (pageSize > 0) {
+                after = page.get(pageSize - 1).getChangedAt();
+                afterId = page.get(pageSize - 1).getId();
+            }
+            applied += pageSize;
+        } while (pageSize == CATCH_UP_PAGE_SIZE);
+        return applied;
+    }
+
+    // Solo vuelca copias puestas al día desde la base de datos y que hayan cambiado desde el último volcado.
+    // Sin el bloqueo de los cambios: escribir a disco no debe frenar los afterCommit
+    void writeSnapshotFile() {
+        // loadedAt antes que la copia: si una recarga termina entre medias, la marca queda por debajo, nunca por encima
+        long capturedAt = loadedAt;
+        CatalogSnapshot current = snapshot.get();
+        if (snapshotFile == null || capturedAt == 0 || current == null || current == lastWritten) {
+            return;
+        }
+        try {
+            CatalogSnapshotFile.write(snapshotFile, current, capturedAt);
+            lastWritten = current;
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo volcar el catálogo en memoria a {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private void loadUntilReady() {
+        try {
+            reloadAll();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo cargar el catálogo en memoria: {}", e.getMessage());
+            ScheduledExecutorService current = executor;
+            if (current != null) {
+                current.schedule(this::loadUntilReady, retryDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void submit(Runnable task) {
+        ScheduledExecutorService current = executor;
+        if (current == null) {
+            return;
+        }
+        current.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // La copia deja de ser fiable: se descarta y se recarga entera
+                log.warn("No se pudo actualizar el catálogo en memoria: {}", e.getMessage());
+                snapshot.set(null);
+                current.schedule(this::loadUntilReady, retryDelayMs, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+}
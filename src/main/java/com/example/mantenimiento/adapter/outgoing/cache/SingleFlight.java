@@ -0,0 +1,108 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las cargas concurrentes de una misma clave: la primera petición ejecuta la carga en su hilo
+ * y las que llegan mientras tanto esperan su resultado en lugar de repetir la consulta. Un error de
+ * la carga se propaga tal cual a todas; si la espera supera {@code timeoutMs} se lanza
+ * {@link QueryTimeoutException} (503).
+ */
+public final class SingleFlight<K, V> {
+    private static final Logger log = LoggerFactory.getLogger(SingleFlight.class);
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+
+    public SingleFlight(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+        return run(key, flight, loader);
+    }
+
+    /**
+     * Recarga en segundo plano si no hay ya una carga de la clave en curso; {@code onLoaded} recibe el
+     * resultado. Devuelve false si ya había una carga en curso.
+     */
+    public boolean refresh(K key, Supplier<V> loader, Consumer<V> onLoaded, Executor executor) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, flight) != null) {
+            return false;
+        }
+        Runnable refresh = () -> {
+            try {
+                onLoaded.accept(run(key, flight, loader));
+            } catch (RuntimeException e) {
+                // Quien esperaba la carga ya recibió el error; el valor anterior sigue en uso
+                log.warn("Fallo en la recarga en segundo plano de {}: {}", key, e.getMessage());
+            }
+        };
+        try {
+            executor.execute(refresh);
+        } catch (RejectedExecutionException e) {
+            // Ejecutor saturado: se recarga en este hilo para no dejar esperando a quien ya se unió
+            refresh.run();
+        }
+        return true;
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V run(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("La carga compartida superó " + timeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando una carga compartida", e);
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Carga compartida cancelada", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
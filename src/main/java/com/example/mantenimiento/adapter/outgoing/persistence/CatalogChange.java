@@ -0,0 +1,36 @@
+package com.example.mantenimiento.adapter.outgoing.persistence;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Una fila del feed de cambios: el estado actual de un alta o modificación, o la lápida de un borrado
+ * ({@link #getValue()} null).
+ */
+public final class CatalogChange<T> {
+    private final UUID id;
+    private final Instant changedAt;
+    private final T value;
+
+    public CatalogChange(UUID id, Instant changedAt, T value) {
+        this.id = id;
+        this.changedAt = changedAt;
+        this.value = value;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public boolean isDeleted() {
+        return value == null;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.mantenimiento.adapter.outgoing.persistence;
+
+import com.example.mantenimiento.domain.model.Category;
+import com.example.mantenimiento.domain.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feed de cambios del catálogo sobre updated_at y la tabla catalog_tombstones (V4): altas y modificaciones
+ * vivas más lápidas de borrados, en orden (momento del cambio, id). SQL nativo porque las lápidas no son
+ * entidades y el orden mezcla las dos tablas; cada rama lee como mucho {@code limit} filas de su índice.
+ */
+@Repository
+public class CatalogChangeRepository {
+    private static final String PRODUCT = "PRODUCT";
+    private static final String CATEGORY = "CATEGORY";
+
+    private static final String PRODUCT_CHANGES = """
+        (SELECT id, name, description, price, category_id, updated_at AS changed_at, FALSE AS deleted
+         FROM products WHERE (updated_at, id) > (?, ?) AND updated_at < ? ORDER BY updated_at, id LIMIT ?)
+        UNION ALL
+        (SELECT id, NULL, NULL, NULL, NULL, deleted_at, TRUE
+         FROM catalog_tombstones WHERE entity_type = ? AND (deleted_at, id) > (?, ?) AND deleted_at < ?
+         ORDER BY deleted_at, id LIMIT ?)
+        ORDER BY changed_at, id LIMIT ?
+        """;
+    private static final String CATEGORY_CHANGES = """
+        (SELECT id, name, updated_at AS changed_at, FALSE AS deleted
+         FROM categories WHERE (updated_at, id) > (?, ?) AND updated_at < ? ORDER BY updated_at, id LIMIT ?)
+        UNION ALL
+        (SELECT id, NULL, deleted_at, TRUE
+         FROM catalog_tombstones WHERE entity_type = ? AND (deleted_at, id) > (?, ?) AND deleted_at < ?
+         ORDER BY deleted_at, id LIMIT ?)
+        ORDER BY changed_at, id LIMIT ?
+        """;
+
+    private static final RowMapper<CatalogChange<Product>> PRODUCT_ROW = (rs, rowNum) -> change(rs, () -> Product.builder()
+        .id(rs.getObject("id", UUID.class))
+        .name(rs.getString("name"))
+        .description(rs.getString("description"))
+        .price(rs.getBigDecimal("price"))
+        .categoryId(rs.getObject("category_id", UUID.class))
+        .build());
+    private static final RowMapper<CatalogChange<Category>> CATEGORY_ROW = (rs, rowNum) -> change(rs, () -> Category.builder()
+        .id(rs.getObject("id", UUID.class))
+        .name(rs.getString("name"))
+        .build());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration tombstoneRetention;
+
+    public CatalogChangeRepository(
+        JdbcTemplate jdbcTemplate,
+        @Value("${catalog.changes.tombstone-retention-days:30}") long tombstoneRetentionDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+    }
+
+    /**
+     * Consulta de una página del feed: cambios posteriores a (after, afterId) y anteriores a until.
+     */
+    @FunctionalInterface
+    public interface ChangeQuery<T> {
+        List<CatalogChange<T>> find(Instant after, UUID afterId, Instant until, int limit);
+    }
+
+    public List<CatalogChange<Product>> findProductChanges(Instant after, UUID afterId, Instant until, int limit) {
+        return jdbcTemplate.query(PRODUCT_CHANGES, PRODUCT_ROW, arguments(PRODUCT, after, afterId, until, limit));
+    }
+
+    public List<CatalogChange<Category>> findCategoryChanges(Instant after, UUID afterId, Instant until, int limit) {
+        return jdbcTemplate.query(CATEGORY_CHANGES, CATEGORY_ROW, arguments(CATEGORY, after, afterId, until, limit));
+    }
+
+    /**
+     * Reloj de la base de datos menos {@code settle}: las escrituras llevan su marca de tiempo y no la del
+     * servidor de aplicación, y una transacción aún abierta puede confirmar después filas con marca anterior.
+     */
+    public Instant horizon(Duration settle) {
+        OffsetDateTime now = jdbcTemplate.queryForObject("SELECT clock_timestamp()", OffsetDateTime.class);
+        return now.toInstant().minus(settle);
+    }
+
+    /**
+     * Un punto del feed anterior a la retención puede haber perdido lápidas ya purgadas. {@code databaseNow}
+     * es el reloj de la base de datos (el de {@link #horizon}), el mismo con el que purga {@link #pruneTombstones}.
+     */
+    public boolean isRetained(Instant since, Instant databaseNow) {
+        return !since.isBefore(databaseNow.minus(tombstoneRetention));
+    }
+
+    public int pruneTombstones() {
+        return jdbcTemplate.update("DELETE FROM catalog_tombstones WHERE deleted_at < clock_timestamp() - ?::interval",
+            tombstoneRetention.toSeconds() + " seconds");
+    }
+
+    private static Object[] arguments(String entityType, Instant after, UUID afterId, Instant until, int limit) {
+        OffsetDateTime from = timestamp(after);
+        OffsetDateTime to = timestamp(until);
+        return new Object[] {from, afterId, to, limit, entityType, from, afterId, to, limit, limit};
+    }
+
+    // El driver de PostgreSQL admite OffsetDateTime pero no Instant
+    private static OffsetDateTime timestamp(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private static <T> CatalogChange<T> change(ResultSet rs, RowValue<T> value) throws SQLException {
+        UUID id = rs.getObject("id", UUID.class);
+        Instant changedAt = rs.getObject("changed_at", OffsetDateTime.class).toInstant();
+        return new CatalogChange<>(id, changedAt, rs.getBoolean("deleted") ? null : value.read());
+    }
+
+    @FunctionalInterface
+    private interface RowValue<T> {
+        T read() throws SQLException;
+    }
+}
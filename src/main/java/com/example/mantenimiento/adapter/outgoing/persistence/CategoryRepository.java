@@ -1,9 +1,27 @@
 package com.example.mantenimiento.adapter.outgoing.persistence;
 
 import com.example.mantenimiento.adapter.outgoing.persistence.entity.CategoryEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface CategoryRepository extends JpaRepository<CategoryEntity, UUID> {
+    // El listado se sirve desde la caché de consultas hasta que cambie la tabla categories
+    @Override
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST_MS)
+    })
+    List<CategoryEntity> findAll();
+
+    // Del primario: alimenta el filtro de ids, que no puede perder altas recientes por el retraso de una réplica
+    @Transactional
+    @Query("select c.id from CategoryEntity c")
+    List<UUID> findAllIds();
 }
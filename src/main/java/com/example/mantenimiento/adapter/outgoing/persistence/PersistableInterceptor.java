@@ -0,0 +1,20 @@
+package com.example.mantenimiento.adapter.outgoing.persistence;
+
+import org.hibernate.Interceptor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Con un id generado, Hibernate considera separada (detached) cualquier entidad que ya traiga id y
+ * rechaza el persist. Las entidades marcadas como nuevas ({@link Persistable#isNew()}) se declaran
+ * transitorias; para el resto decide Hibernate.
+ */
+public class PersistableInterceptor implements Interceptor {
+
+    @Override
+    public Boolean isTransient(Object entity) {
+        if (entity instanceof Persistable<?> persistable && persistable.isNew()) {
+            return Boolean.TRUE;
+        }
+        return null;
+    }
+}
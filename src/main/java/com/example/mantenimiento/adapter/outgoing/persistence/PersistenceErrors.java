@@ -0,0 +1,49 @@
+package com.example.mantenimiento.adapter.outgoing.persistence;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Set;
+
+public final class PersistenceErrors {
+
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+    private static final String FOREIGN_KEY_VIOLATION_SQL_STATE = "23503";
+
+    private PersistenceErrors() {
+        throw new AssertionError("No se debe instanciar esta clase");
+    }
+
+    public static boolean isUniqueViolation(DataIntegrityViolationException ex, Set<String> constraintNames) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return constraintNames.contains(unqualified(violation.getConstraintName()));
+            }
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                String message = String.valueOf(sqlException.getMessage()).toLowerCase();
+                return constraintNames.stream().anyMatch(message::contains);
+            }
+        }
+        return false;
+    }
+
+    // PostgreSQL da el nombre tal cual; H2 lo entrecomilla con el esquema y el detalle ("PUBLIC.UX_... ON PUBLIC.USERS(...)")
+    private static String unqualified(String constraintName) {
+        String name = constraintName.toLowerCase(Locale.ROOT);
+        int start = name.startsWith("\"") ? 1 : 0;
+        int end = name.indexOf(' ', start);
+        name = name.substring(start, end < 0 ? name.length() : end);
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    public static boolean isForeignKeyViolation(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && FOREIGN_KEY_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
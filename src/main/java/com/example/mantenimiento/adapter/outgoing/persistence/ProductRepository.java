@@ -1,9 +1,32 @@
 package com.example.mantenimiento.adapter.outgoing.persistence;
 
 import com.example.mantenimiento.adapter.outgoing.persistence.entity.ProductEntity;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface ProductRepository extends JpaRepository<ProductEntity, UUID> {
+    @Override
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST_MS))
+    List<ProductEntity> findAll();
+
+    @Modifying
+    @Query("delete from ProductEntity p where p.categoryId = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") UUID categoryId);
+
+    @Modifying
+    @Query("update ProductEntity p set p.categoryId = :targetId where p.categoryId = :categoryId")
+    int reassignCategory(@Param("categoryId") UUID categoryId, @Param("targetId") UUID targetId);
+
+    // Del primario: alimenta el filtro de ids, que no puede perder altas recientes por el retraso de una réplica
+    @Transactional
+    @Query("select p.id from ProductEntity p")
+    List<UUID> findAllIds();
 }
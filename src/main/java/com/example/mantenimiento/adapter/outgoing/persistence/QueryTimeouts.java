@@ -0,0 +1,14 @@
+package com.example.mantenimiento.adapter.outgoing.persistence;
+
+/**
+ * Tiempos máximos (ms) de las consultas de listado, como valores de la pista
+ * {@code jakarta.persistence.query.timeout}. El resto de sentencias quedan acotadas por el
+ * statement_timeout de la conexión.
+ */
+public final class QueryTimeouts {
+    public static final String HINT = "jakarta.persistence.query.timeout";
+    public static final String LIST_MS = "3000";
+
+    private QueryTimeouts() {
+    }
+}
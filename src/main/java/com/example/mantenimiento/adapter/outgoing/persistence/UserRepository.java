@@ -2,10 +2,23 @@ package com.example.mantenimiento.adapter.outgoing.persistence;
 
 import com.example.mantenimiento.adapter.outgoing.persistence.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+// Transacciones de lectura-escritura: login y registro leen del primario, no de una réplica con retraso
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
-    Optional<UserEntity> findByUsername(String username);
+    // lower(...) en ambos lados para usar el índice único ux_users_username_lower
+    @Transactional
+    @Query("select u from UserEntity u where lower(u.username) = lower(:username)")
+    Optional<UserEntity> findByUsername(@Param("username") String username);
+
+    @Transactional
+    @Query("select lower(u.username) from UserEntity u where lower(u.username) in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> lowerCaseUsernames);
 }
@@ -0,0 +1,27 @@
+package com.example.mantenimiento.adapter.outgoing.persistence;
+
+import com.example.mantenimiento.domain.id.UuidV7;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.springframework.data.domain.Persistable;
+
+import java.lang.reflect.Member;
+
+/**
+ * Generador de ids de {@link UuidV7Id}. Respeta el id ya asignado por la aplicación (los mappers
+ * también usan UUIDv7) y solo genera uno cuando la entidad llega sin él.
+ */
+public class UuidV7IdGenerator implements IdentifierGenerator {
+
+    public UuidV7IdGenerator(UuidV7Id config, Member idMember, CustomIdGeneratorCreationContext context) {
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        if (entity instanceof Persistable<?> persistable && persistable.getId() != null) {
+            return persistable.getId();
+        }
+        return UuidV7.generate();
+    }
+}
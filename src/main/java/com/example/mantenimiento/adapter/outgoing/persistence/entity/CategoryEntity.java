@@ -1,20 +1,40 @@
 package com.example.mantenimiento.adapter.outgoing.persistence.entity;
 
+import com.example.mantenimiento.adapter.outgoing.persistence.UuidV7Id;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.Persistable;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CategoryEntity.CACHE_REGION)
 @Schema(name = "Category", description = "Categoría de productos")
-public class CategoryEntity {
+public class CategoryEntity implements Persistable<UUID> {
+    public static final String CACHE_REGION = "categories";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Schema(example = "58fa5de6-b194-4e7d-814a-f0ed9072d8f3")
     private UUID id;
     @Schema(example = "Electrónica")
     private String name;
+    // Las mantiene un trigger (V4__catalog_change_tracking): Hibernate no las escribe nunca
+    @Column(insertable = false, updatable = false)
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant createdAt;
+    @Column(insertable = false, updatable = false)
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant updatedAt;
+
+    // Alta con id asignado por la aplicación: save() hace persist (un solo INSERT) en lugar de merge (SELECT + INSERT)
+    @Transient
+    private boolean newEntity;
 
     public CategoryEntity() {
     }
@@ -24,6 +44,7 @@ public class CategoryEntity {
         this.name = name;
     }
 
+    @Override
     public UUID getId() {
         return id;
     }
@@ -39,5 +60,28 @@ public class CategoryEntity {
     public void setName(String name) {
         this.name = name;
     }
-}
 
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    public CategoryEntity markNew() {
+        this.newEntity = true;
+        return this;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
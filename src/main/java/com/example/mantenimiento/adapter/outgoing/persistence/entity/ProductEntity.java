@@ -1,17 +1,20 @@
 package com.example.mantenimiento.adapter.outgoing.persistence.entity;
 
+import com.example.mantenimiento.adapter.outgoing.persistence.UuidV7Id;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
 @Table(name = "products")
 @Schema(name = "Product", description = "Producto del catálogo")
-public class ProductEntity {
+public class ProductEntity implements Persistable<UUID> {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Schema(example = "a6da5d57-42d1-40af-a1de-f53b2f8f2d15")
     private UUID id;
     @Schema(example = "Mouse")
@@ -22,6 +25,17 @@ public class ProductEntity {
     private BigDecimal price;
     @Schema(example = "58fa5de6-b194-4e7d-814a-f0ed9072d8f3")
     private UUID categoryId;
+    // Las mantiene un trigger (V4__catalog_change_tracking): Hibernate no las escribe nunca
+    @Column(insertable = false, updatable = false)
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant createdAt;
+    @Column(insertable = false, updatable = false)
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant updatedAt;
+
+    // Alta con id asignado por la aplicación: save() hace persist (un solo INSERT) en lugar de merge (SELECT + INSERT)
+    @Transient
+    private boolean newEntity;
 
     public ProductEntity() {
     }
@@ -34,6 +48,7 @@ public class ProductEntity {
         this.categoryId = categoryId;
     }
 
+    @Override
     public UUID getId() {
         return id;
     }
@@ -73,5 +88,28 @@ public class ProductEntity {
     public void setCategoryId(UUID categoryId) {
         this.categoryId = categoryId;
     }
-}
 
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    public ProductEntity markNew() {
+        this.newEntity = true;
+        return this;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
@@ -1,21 +1,29 @@
 package com.example.mantenimiento.adapter.outgoing.persistence.entity;
 
+import com.example.mantenimiento.adapter.outgoing.persistence.UuidV7Id;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
 
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
 @Table(name = "users")
 @Schema(name = "User", description = "Usuario de la aplicación")
-public class UserEntity {
+public class UserEntity implements Persistable<UUID> {
+    // Índice único sobre lower(username) (migración V2) y la restricción UNIQUE original de la tabla (V1)
+    public static final String USERNAME_UNIQUE_INDEX = "ux_users_username_lower";
+    public static final Set<String> USERNAME_CONSTRAINTS = Set.of(USERNAME_UNIQUE_INDEX, "users_username_key");
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Schema(example = "3c00f8ed-1118-4f58-9bc5-1b467faec41d")
     private UUID id;
     @Schema(example = "admin")
@@ -26,6 +34,10 @@ public class UserEntity {
     @Schema(example = "ROLE_USER")
     private String role;
 
+    // Alta con id asignado por la aplicación: save() hace persist (un solo INSERT) en lugar de merge (SELECT + INSERT)
+    @Transient
+    private boolean newEntity;
+
     public UserEntity() {
     }
 
@@ -36,6 +48,7 @@ public class UserEntity {
         this.role = role;
     }
 
+    @Override
     public UUID getId() {
         return id;
     }
@@ -67,5 +80,20 @@ public class UserEntity {
     public void setRole(String role) {
         this.role = role;
     }
-}
 
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    public UserEntity markNew() {
+        this.newEntity = true;
+        return this;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
@@ -18,6 +18,12 @@ public class CategoryEntityMapper {
             .build();
     }
 
+    // Entidad nueva con el id ya asignado en el dominio; ver CategoryEntity#isNew
+    public CategoryEntity toNewEntity(Category domain) {
+        CategoryEntity entity = toEntity(domain);
+        return entity == null ? null : entity.markNew();
+    }
+
     public CategoryEntity toEntity(Category domain) {
         if (domain == null) {
             return null;
@@ -21,6 +21,12 @@ public class ProductEntityMapper {
             .build();
     }
 
+    // Entidad nueva con el id ya asignado en el dominio; ver ProductEntity#isNew
+    public ProductEntity toNewEntity(Product domain) {
+        ProductEntity entity = toEntity(domain);
+        return entity == null ? null : entity.markNew();
+    }
+
     public ProductEntity toEntity(Product domain) {
         if (domain == null) {
             return null;
@@ -20,6 +20,12 @@ public class UserEntityMapper {
             .build();
     }
 
+    // Entidad nueva con el id ya asignado en el dominio; ver UserEntity#isNew
+    public UserEntity toNewEntity(User domain) {
+        UserEntity entity = toEntity(domain);
+        return entity == null ? null : entity.markNew();
+    }
+
     public UserEntity toEntity(User domain) {
         if (domain == null) {
             return null;
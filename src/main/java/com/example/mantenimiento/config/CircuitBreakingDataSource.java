@@ -0,0 +1,116 @@
+package com.example.mantenimiento.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+
+/**
+ * Pide las conexiones a través de {@link DatabaseCircuitBreaker}: con el circuito abierto falla al
+ * momento en lugar de esperar el connection-timeout del pool. La excepción llega a la aplicación como
+ * {@code DataAccessResourceFailureException}, que se responde con 503 y Retry-After hasta el siguiente intento.
+ * Las sentencias de esas conexiones también informan al circuito: su duración cuenta como llamada lenta
+ * o correcta y los fallos de la base de datos (timeouts, conexión perdida, falta de recursos) como fallo.
+ * Los errores de la aplicación, como una clave duplicada, no cuentan.
+ */
+public class CircuitBreakingDataSource extends DelegatingDataSource {
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    public CircuitBreakingDataSource(DataSource target, DatabaseCircuitBreaker circuitBreaker) {
+        super(target);
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return acquire(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return acquire(() -> super.getConnection(username, password));
+    }
+
+    private Connection acquire(ConnectionSource source) throws SQLException {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new CircuitOpenException(circuitBreaker.retryAfterMs());
+        }
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = source.get();
+        } catch (SQLException | RuntimeException e) {
+            circuitBreaker.onFailure();
+            throw e;
+        }
+        circuitBreaker.onSuccess(System.nanoTime() - start);
+        return monitored(connection);
+    }
+
+    // Las sentencias que crea la conexión se devuelven envueltas; el resto de métodos llega tal cual
+    private Connection monitored(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                return result instanceof Statement statement ? monitored(statement, method.getReturnType()) : result;
+            }
+        );
+    }
+
+    // type: Statement, PreparedStatement o CallableStatement, según el método que la creó
+    private Object monitored(Statement statement, Class<?> type) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(statement, method, args);
+            } catch (SQLException e) {
+                if (isDatabaseFailure(e)) {
+                    circuitBreaker.onFailure();
+                }
+                throw e;
+            }
+            circuitBreaker.onSuccess(System.nanoTime() - start);
+            return result;
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // SQLState 08 (conexión), 53 (recursos), 57014 (statement_timeout o cancelación) y 57P (parada del servidor)
+    static boolean isDatabaseFailure(SQLException e) {
+        if (e instanceof SQLTimeoutException || e instanceof SQLTransientConnectionException
+            || e instanceof SQLNonTransientConnectionException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state != null
+            && (state.startsWith("08") || state.startsWith("53") || state.equals("57014") || state.startsWith("57P"));
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+}
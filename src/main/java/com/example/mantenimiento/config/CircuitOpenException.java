@@ -0,0 +1,20 @@
+package com.example.mantenimiento.config;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Conexión rechazada por {@link DatabaseCircuitBreaker} abierto; lleva el tiempo que falta para el
+ * siguiente intento, que {@link GlobalExceptionHandler} envía como Retry-After.
+ */
+class CircuitOpenException extends SQLTransientConnectionException {
+    private final long retryAfterMs;
+
+    CircuitOpenException(long retryAfterMs) {
+        super("Base de datos no disponible: cortocircuito abierto durante " + retryAfterMs + " ms más");
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    long retryAfterMs() {
+        return retryAfterMs;
+    }
+}
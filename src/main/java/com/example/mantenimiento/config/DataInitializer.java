@@ -2,6 +2,7 @@ package com.example.mantenimiento.config;
 
 import com.example.mantenimiento.adapter.outgoing.persistence.UserRepository;
 import com.example.mantenimiento.adapter.outgoing.persistence.entity.UserEntity;
+import com.example.mantenimiento.domain.id.UuidV7;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -23,9 +24,9 @@ public class DataInitializer implements CommandLineRunner {
     public void run(String... args) throws Exception {
         // Check if admin already exists, if not create it
         if (userRepository.findByUsername("admin").isEmpty()) {
-            UUID id = UUID.randomUUID();
+            UUID id = UuidV7.generate();
             String hashed = passwordEncoder.encode("password");
-            UserEntity admin = new UserEntity(id, "admin", hashed, "ROLE_ADMIN");
+            UserEntity admin = new UserEntity(id, "admin", hashed, "ROLE_ADMIN").markNew();
             userRepository.save(admin);
             System.out.println("Admin user created");
         } else {
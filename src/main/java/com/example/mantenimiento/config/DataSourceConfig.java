@@ -0,0 +1,98 @@
+package com.example.mantenimiento.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class DataSourceConfig {
+
+    // Pool del primario; Flyway migra siempre contra él. spring.datasource.hikari.* se aplica después y
+    // tiene prioridad sobre el tamaño calculado aquí
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(
+        DataSourceProperties properties,
+        @Value("${db-pool.max-size:0}") int maxSize,
+        @Value("${db-pool.db-max-connections:100}") int dbMaxConnections,
+        @Value("${db-pool.instances:1}") int instances
+    ) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        dataSource.setMaximumPoolSize(maxSize > 0 ? maxSize : defaultPoolSize(dbMaxConnections, instances));
+        return dataSource;
+    }
+
+    // núcleos * 2 + 1, sin que la suma de todas las instancias supere las conexiones que admite la base de datos
+    static int defaultPoolSize(int dbMaxConnections, int instances) {
+        int byCores = Runtime.getRuntime().availableProcessors() * 2 + 1;
+        int byDatabase = dbMaxConnections / Math.max(1, instances);
+        return Math.max(2, Math.min(byCores, byDatabase));
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource routingDataSource(
+        HikariDataSource primaryDataSource,
+        @Value("${datasource-routing.replica-urls:}") List<String> replicaUrls,
+        @Value("${datasource-routing.replica-connection-timeout-ms:1000}") long replicaConnectionTimeoutMs,
+        @Value("${datasource-routing.replica-retry-after-ms:30000}") long replicaRetryAfterMs
+    ) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            // Misma configuración que el primario salvo URL, espera corta y arranque aunque la réplica no responda
+            HikariDataSource replica = new HikariDataSource();
+            primaryDataSource.copyStateTo(replica);
+            replica.setJdbcUrl(url.trim());
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setConnectionTimeout(replicaConnectionTimeoutMs);
+            replica.setInitializationFailTimeout(-1);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, replicaRetryAfterMs);
+    }
+
+    @Bean
+    public DatabaseCircuitBreaker databaseCircuitBreaker(
+        MeterRegistry meterRegistry,
+        @Value("${db-circuit.window-size:20}") int windowSize,
+        @Value("${db-circuit.minimum-calls:10}") int minimumCalls,
+        @Value("${db-circuit.failure-rate-threshold:0.5}") double failureRateThreshold,
+        @Value("${db-circuit.slow-call-rate-threshold:0.5}") double slowCallRateThreshold,
+        @Value("${db-circuit.slow-call-ms:1000}") long slowCallMs,
+        @Value("${db-circuit.open-ms:5000}") long openMs,
+        @Value("${db-circuit.half-open-calls:3}") int halfOpenCalls
+    ) {
+        return new DatabaseCircuitBreaker(meterRegistry, windowSize, minimumCalls, failureRateThreshold,
+            slowCallRateThreshold, slowCallMs, openMs, halfOpenCalls);
+    }
+
+    // Flyway y el canal LISTEN/NOTIFY usan sus propias conexiones y no pasan por el cortocircuito
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        ReadWriteRoutingDataSource routingDataSource,
+        DatabaseCircuitBreaker databaseCircuitBreaker,
+        @Value("${db-circuit.enabled:true}") boolean circuitEnabled
+    ) {
+        DataSource target = circuitEnabled
+            ? new CircuitBreakingDataSource(routingDataSource, databaseCircuitBreaker)
+            : routingDataSource;
+        return new LazyConnectionDataSourceProxy(target);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.mantenimiento.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cortocircuito de la base de datos según las últimas {@code windowSize} peticiones de conexión:
+ * se abre si la proporción de fallos o de esperas lentas supera su umbral, y mientras está abierto
+ * se rechaza sin esperar al pool. Pasado {@code openMs} deja pasar {@code halfOpenCalls} sondas; si
+ * todas van bien se cierra y con el primer fallo vuelve a abrirse.
+ */
+public class DatabaseCircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+    private static final byte SUCCESS = 0;
+    private static final byte SLOW = 1;
+    private static final byte FAILURE = 2;
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openMs;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+    // Resultado de cada una de las últimas llamadas, en anillo
+    private final byte[] window;
+    private final Counter successes;
+    private final Counter slowCalls;
+    private final Counter failures;
+    private final Counter rejected;
+
+    private volatile State state = State.CLOSED;
+    private int position;
+    private int recorded;
+    private int failedInWindow;
+    private int slowInWindow;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public DatabaseCircuitBreaker(
+        MeterRegistry meterRegistry,
+        int windowSize,
+        int minimumCalls,
+        double failureRateThreshold,
+        double slowCallRateThreshold,
+        long slowCallMs,
+        long openMs,
+        int halfOpenCalls
+    ) {
+        this(meterRegistry, windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold,
+            slowCallMs, openMs, halfOpenCalls, System::currentTimeMillis);
+    }
+
+    DatabaseCircuitBreaker(
+        MeterRegistry meterRegistry,
+        int windowSize,
+        int minimumCalls,
+        double failureRateThreshold,
+        double slowCallRateThreshold,
+        long slowCallMs,
+        long openMs,
+        int halfOpenCalls,
+        LongSupplier clock
+    ) {
+        this.window = new byte[Math.max(1, windowSize)];
+        this.minimumCalls = Math.min(Math.max(1, minimumCalls), window.length);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.openMs = openMs;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.clock = clock;
+        this.successes = calls(meterRegistry, "success");
+        this.slowCalls = calls(meterRegistry, "slow");
+        this.failures = calls(meterRegistry, "failure");
+        this.rejected = calls(meterRegistry, "rejected");
+        Gauge.builder("db.circuit.state", this, breaker -> breaker.state.ordinal())
+            .description("Estado del cortocircuito de la base de datos: 0 cerrado, 1 abierto, 2 semiabierto")
+            .register(meterRegistry);
+    }
+
+    /**
+     * true si la llamada puede ir a la base de datos; quien la obtiene debe informar el resultado con
+     * {@link #onSuccess} u {@link #onFailure}.
+     */
+    public boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN && clock.getAsLong() - openedAt >= openMs) {
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN && probesStarted < halfOpenCalls) {
+                probesStarted++;
+                return true;
+            }
+            if (state == State.CLOSED) {
+                return true;
+            }
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void onSuccess(long elapsedNanos) {
+        boolean slow = elapsedNanos >= slowCallNanos;
+        (slow ? slowCalls : successes).increment();
+        synchronized (this) {
+            if (state == State.HALF_OPEN) {
+                // Una sonda lenta indica que la base de datos aún no se ha recuperado
+                if (slow) {
+                    open();
+                } else if (++probesSucceeded >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            } else if (state == State.CLOSED) {
+                record(slow ? SLOW : SUCCESS);
+            }
+        }
+    }
+
+    public void onFailure() {
+        failures.increment();
+        synchronized (this) {
+            if (state == State.HALF_OPEN) {
+                open();
+            } else if (state == State.CLOSED) {
+                record(FAILURE);
+            }
+        }
+    }
+
+    public State state() {
+        return state;
+    }
+
+    // Milisegundos hasta la siguiente sonda; 0 si no está abierto
+    public synchronized long retryAfterMs() {
+        return state == State.OPEN ? Math.max(0, openedAt + openMs - clock.getAsLong()) : 0;
+    }
+
+    private void record(byte outcome) {
+        if (recorded == window.length) {
+            byte evicted = window[position];
+            failedInWindow -= evicted == FAILURE ? 1 : 0;
+            slowInWindow -= evicted == SLOW ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        window[position] = outcome;
+        position = (position + 1) % window.length;
+        failedInWindow += outcome == FAILURE ? 1 : 0;
+        slowInWindow += outcome == SLOW ? 1 : 0;
+        if (recorded >= minimumCalls
+            && ((double) failedInWindow / recorded >= failureRateThreshold
+                || (double) slowInWindow / recorded >= slowCallRateThreshold)) {
+            log.warn("Cortocircuito de la base de datos abierto: {} fallos y {} esperas lentas en {} llamadas",
+                failedInWindow, slowInWindow, recorded);
+            open();
+        }
+    }
+
+    private void open() {
+        openedAt = clock.getAsLong();
+        transitionTo(State.OPEN);
+    }
+
+    private void transitionTo(State next) {
+        if (next == State.CLOSED || next == State.HALF_OPEN) {
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (next == State.CLOSED) {
+            position = 0;
+            recorded = 0;
+            failedInWindow = 0;
+            slowInWindow = 0;
+        }
+        if (state != next) {
+            log.info("Cortocircuito de la base de datos: {} -> {}", state, next);
+        }
+        state = next;
+    }
+
+    private static Counter calls(MeterRegistry registry, String outcome) {
+        return Counter.builder("db.circuit.calls")
+            .description("Peticiones de conexión según el cortocircuito: correctas, lentas, fallidas y rechazadas")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
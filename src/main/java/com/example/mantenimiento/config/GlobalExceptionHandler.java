@@ -1,19 +1,27 @@
 package com.example.mantenimiento.config;
 
 import com.example.mantenimiento.adapter.incoming.dto.ApiErrorResponse;
+import com.example.mantenimiento.adapter.incoming.web.ErrorResponses;
+import com.example.mantenimiento.domain.constants.ErrorMessages;
+import com.example.mantenimiento.domain.exception.DuplicateResourceException;
+import com.example.mantenimiento.domain.exception.ResourceInUseException;
 import com.example.mantenimiento.domain.exception.ResourceNotFoundException;
+import com.example.mantenimiento.domain.exception.SyncTokenExpiredException;
 import com.example.mantenimiento.domain.exception.ValidationException;
 import com.example.mantenimiento.usecase.exception.InvalidCredentialsException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.time.OffsetDateTime;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -46,25 +54,62 @@ public class GlobalExceptionHandler {
         return buildError(HttpStatus.NOT_FOUND, ex.getMessage(), request);
     }
 
+    @ExceptionHandler(DuplicateResourceException.class)
+    public ResponseEntity<ApiErrorResponse> handleDuplicateResource(DuplicateResourceException ex, HttpServletRequest request) {
+        return buildError(HttpStatus.CONFLICT, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(ResourceInUseException.class)
+    public ResponseEntity<ApiErrorResponse> handleResourceInUse(ResourceInUseException ex, HttpServletRequest request) {
+        return buildError(HttpStatus.CONFLICT, ex.getMessage(), request);
+    }
+
+    // El cliente tiene que descartar su copia y sincronizar desde el principio
+    @ExceptionHandler(SyncTokenExpiredException.class)
+    public ResponseEntity<ApiErrorResponse> handleSyncTokenExpired(SyncTokenExpiredException ex, HttpServletRequest request) {
+        return buildError(HttpStatus.GONE, ex.getMessage(), request);
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<ApiErrorResponse> handleResponseStatusException(ResponseStatusException ex, HttpServletRequest request) {
         String message = ex.getReason() == null ? ex.getStatusCode().toString() : ex.getReason();
         return buildError(HttpStatus.valueOf(ex.getStatusCode().value()), message, request);
     }
 
+    // Sin conexión del pool dentro de connection-timeout o base de datos caída
+    @ExceptionHandler({DataAccessResourceFailureException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<ApiErrorResponse> handleDatabaseUnavailable(Exception ex, HttpServletRequest request) {
+        return serviceUnavailable(ErrorMessages.DATABASE_UNAVAILABLE, retryAfterSeconds(ex), request);
+    }
+
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<ApiErrorResponse> handleQueryTimeout(QueryTimeoutException ex, HttpServletRequest request) {
+        return serviceUnavailable(ErrorMessages.DATABASE_QUERY_TIMEOUT, 1, request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiErrorResponse> handleGenericException(Exception ex, HttpServletRequest request) {
         return buildError(HttpStatus.INTERNAL_SERVER_ERROR, "Error interno del servidor", request);
     }
 
+    private ResponseEntity<ApiErrorResponse> serviceUnavailable(String message, long retryAfterSeconds, HttpServletRequest request) {
+        ResponseEntity<ApiErrorResponse> error = buildError(HttpStatus.SERVICE_UNAVAILABLE, message, request);
+        return ResponseEntity.status(error.getStatusCode())
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+            .body(error.getBody());
+    }
+
+    // Con el circuito abierto, lo que falta para que deje pasar pruebas (redondeado hacia arriba); si no, 1 s
+    static long retryAfterSeconds(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CircuitOpenException open) {
+                return Math.max(1, (open.retryAfterMs() + 999) / 1000);
+            }
+        }
+        return 1;
+    }
+
     private ResponseEntity<ApiErrorResponse> buildError(HttpStatus status, String message, HttpServletRequest request) {
-        ApiErrorResponse response = new ApiErrorResponse(
-            OffsetDateTime.now().toString(),
-            status.value(),
-            status.getReasonPhrase(),
-            message,
-            request.getRequestURI()
-        );
-        return ResponseEntity.status(status).body(response);
+        return ErrorResponses.of(status, message, request.getRequestURI());
     }
 }
@@ -1,10 +1,13 @@
 package com.example.mantenimiento.config;
 
+import com.example.mantenimiento.adapter.outgoing.cache.BoundedLruMap;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -16,35 +19,163 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.nio.CharBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+    private static final int MAX_VERIFIED_TOKENS = 10_000;
+    private static final int MAX_INTERNED_ROLES = 64;
+    // Un token rechazado se recuerda este tiempo: repetirlo no vuelve a verificar la firma
+    private static final long REJECTED_TTL_MS = 60_000;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
     private final JwtUtil jwtUtil;
+    private final LongSupplier clock;
+    // Autoridades compartidas por rol y resultado de verificar cada cabecera completa, válida o no
+    private final Map<String, List<GrantedAuthority>> roleAuthorities = new ConcurrentHashMap<>();
+    private final BoundedLruMap<String, VerifiedToken> verifiedTokens;
 
     public JwtAuthFilter(JwtUtil jwtUtil) {
+        this(jwtUtil, MAX_VERIFIED_TOKENS, System::currentTimeMillis);
+    }
+
+    JwtAuthFilter(JwtUtil jwtUtil, int maxVerifiedTokens, LongSupplier clock) {
         this.jwtUtil = jwtUtil;
+        this.clock = clock;
+        this.verifiedTokens = new BoundedLruMap<>(maxVerifiedTokens, token -> token.expiresAt);
+        authoritiesFor("ROLE_USER");
+        authoritiesFor("ROLE_ADMIN");
     }
 
     @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) 
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Peticiones anónimas (GET públicos de productos/categorías) no pagan nada en este filtro
+        return request.getHeader(HttpHeaders.AUTHORIZATION) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String auth = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (auth != null && auth.startsWith("Bearer ")) {
-            String token = auth.substring(7);
-            try {
-                Jws<Claims> claims = jwtUtil.validateToken(token);
-                String username = claims.getBody().getSubject();
-                String role = (String) claims.getBody().get("role");
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role != null ? role : "ROLE_USER");
-                Authentication authentication = new UsernamePasswordAuthenticationToken(username, null, Collections.singletonList(authority));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            } catch (Exception e) {
+        if (auth != null && auth.startsWith(BEARER_PREFIX)) {
+            Authentication authentication = authenticate(auth);
+            if (authentication == null) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
             }
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(request, response);
     }
+
+    private Authentication authenticate(String authorizationHeader) {
+        long now = clock.getAsLong();
+        VerifiedToken verified = verifiedTokens.get(authorizationHeader, now);
+        if (verified == null) {
+            verified = verify(authorizationHeader, now);
+            verifiedTokens.put(authorizationHeader, verified, now);
+        }
+        if (verified.subject == null || verified.expiresAt <= now) {
+            return null;
+        }
+        // La autenticación es mutable (detalles, eraseCredentials): una nueva por petición con los datos compartidos
+        return UsernamePasswordAuthenticationToken.authenticated(verified.subject, null, verified.authorities);
+    }
+
+    private VerifiedToken verify(String authorizationHeader, long now) {
+        // Formato inválido o token ya expirado (lo habitual) se descartan sin que el parser lance excepciones
+        long expiresAt = unverifiedExpiration(authorizationHeader);
+        if (expiresAt <= now) {
+            return VerifiedToken.rejected(now + REJECTED_TTL_MS);
+        }
+        Claims claims = jwtUtil.parseClaims(
+            CharBuffer.wrap(authorizationHeader, BEARER_PREFIX.length(), authorizationHeader.length())
+        );
+        if (claims == null || claims.getSubject() == null || claims.getExpiration() == null) {
+            return VerifiedToken.rejected(now + REJECTED_TTL_MS);
+        }
+        Object role = claims.get("role");
+        return new VerifiedToken(
+            claims.getSubject(),
+            authoritiesFor(role instanceof String name ? name : DEFAULT_ROLE),
+            claims.getExpiration().getTime()
+        );
+    }
+
+    // exp (en ms) del payload sin verificar la firma, o 0 si el token no tiene forma de JWS. Solo sirve para descartar
+    private static long unverifiedExpiration(String authorizationHeader) {
+        int payloadStart = authorizationHeader.indexOf('.', BEARER_PREFIX.length()) + 1;
+        int payloadEnd = payloadStart == 0 ? -1 : authorizationHeader.indexOf('.', payloadStart);
+        if (payloadEnd < 0 || authorizationHeader.indexOf('.', payloadEnd + 1) >= 0
+            || !isBase64Url(authorizationHeader, BEARER_PREFIX.length(), authorizationHeader.length())) {
+            return 0;
+        }
+        byte[] payload = Base64.getUrlDecoder().decode(authorizationHeader.substring(payloadStart, payloadEnd));
+        try {
+            JsonNode exp = JSON.readTree(payload).get("exp");
+            return exp != null && exp.canConvertToLong() ? exp.asLong() * 1000 : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // Caracteres Base64 URL y puntos, sin segmentos de longitud imposible: así decodificar no lanza excepciones
+    private static boolean isBase64Url(String value, int from, int to) {
+        int segmentLength = 0;
+        for (int i = from; i <= to; i++) {
+            char c = i == to ? '.' : value.charAt(i);
+            if (c == '.') {
+                if (segmentLength % 4 == 1) {
+                    return false;
+                }
+                segmentLength = 0;
+            } else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_') {
+                segmentLength++;
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<GrantedAuthority> authoritiesFor(String role) {
+        List<GrantedAuthority> authorities = roleAuthorities.get(role);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = List.of(new SimpleGrantedAuthority(role));
+        if (roleAuthorities.size() < MAX_INTERNED_ROLES) {
+            roleAuthorities.putIfAbsent(role, authorities);
+        }
+        return authorities;
+    }
+
+    int cachedTokens() {
+        return verifiedTokens.size();
+    }
+
+    // Datos inmutables de un token ya verificado; subject null si se rechazó
+    private static final class VerifiedToken {
+        private final String subject;
+        private final List<GrantedAuthority> authorities;
+        private final long expiresAt;
+
+        private VerifiedToken(String subject, List<GrantedAuthority> authorities, long expiresAt) {
+            this.subject = subject;
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
+
+        private static VerifiedToken rejected(long forgetAt) {
+            return new VerifiedToken(null, List.of(), forgetAt);
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package com.example.mantenimiento.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class JwtConfig {
+
+    @Bean
+    public JwtKeyMaterial jwtKeyMaterial(
+        @Value("${jwt.secret}") String secret,
+        @Value("${jwt.keystore.path:}") String keyStorePath,
+        @Value("${jwt.keystore.type:PKCS12}") String keyStoreType,
+        @Value("${jwt.keystore.password:}") String keyStorePassword,
+        @Value("${jwt.keystore.alias:jwt}") String keyAlias
+    ) {
+        if (keyStorePath == null || keyStorePath.isBlank()) {
+            return JwtKeyMaterial.hmac(secret);
+        }
+        return JwtKeyMaterial.fromKeyStore(Path.of(keyStorePath), keyStoreType, keyStorePassword.toCharArray(), keyAlias);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.mantenimiento.config;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtParserBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+
+import javax.crypto.SecretKey;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claves de firma y verificación de los JWT. En modo asimétrico (ES256 o EdDSA según la clave
+ * del keystore) la clave pública se publica como JWK para que otros servicios verifiquen los
+ * tokens sin compartir el secreto.
+ */
+public final class JwtKeyMaterial {
+
+    private final Key signingKey;
+    private final Key verificationKey;
+    private final PublicJwk<?> publicJwk;
+
+    private JwtKeyMaterial(Key signingKey, Key verificationKey, PublicJwk<?> publicJwk) {
+        this.signingKey = signingKey;
+        this.verificationKey = verificationKey;
+        this.publicJwk = publicJwk;
+    }
+
+    public static JwtKeyMaterial hmac(String secret) {
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return new JwtKeyMaterial(key, key, null);
+    }
+
+    public static JwtKeyMaterial asymmetric(PrivateKey privateKey, PublicKey publicKey) {
+        PublicJwk<?> jwk = Jwks.builder().key(publicKey).publicKeyUse("sig").idFromThumbprint().build();
+        return new JwtKeyMaterial(privateKey, publicKey, jwk);
+    }
+
+    public static JwtKeyMaterial fromKeyStore(Path path, String type, char[] password, String alias) {
+        try (InputStream in = Files.newInputStream(path)) {
+            KeyStore keyStore = KeyStore.getInstance(type);
+            keyStore.load(in, password);
+            Key key = keyStore.getKey(alias, password);
+            Certificate certificate = keyStore.getCertificate(alias);
+            if (!(key instanceof PrivateKey privateKey) || certificate == null) {
+                throw new IllegalStateException("El keystore " + path + " no contiene una clave privada con alias '" + alias + "'");
+            }
+            return asymmetric(privateKey, certificate.getPublicKey());
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo cargar el keystore JWT " + path, e);
+        }
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    public String getKeyId() {
+        return publicJwk == null ? null : publicJwk.getId();
+    }
+
+    public boolean isAsymmetric() {
+        return publicJwk != null;
+    }
+
+    public JwtParser newParser() {
+        JwtParserBuilder builder = Jwts.parser();
+        if (verificationKey instanceof SecretKey secretKey) {
+            builder.verifyWith(secretKey);
+        } else {
+            builder.verifyWith((PublicKey) verificationKey);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Documento JWKS (RFC 7517). Vacío en modo HMAC: la clave secreta nunca se publica.
+     */
+    public Map<String, Object> toJwks() {
+        if (publicJwk == null) {
+            return Map.of("keys", Collections.emptyList());
+        }
+        return Map.of("keys", List.of(new LinkedHashMap<String, Object>(publicJwk)));
+    }
+}
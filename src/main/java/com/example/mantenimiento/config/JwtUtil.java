@@ -1,42 +1,58 @@
 package com.example.mantenimiento.config;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
 import java.util.Date;
+import java.util.Map;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final JwtKeyMaterial keyMaterial;
+    private final long expirationMs;
+    private final JwtParser parser;
 
-    @Value("${jwt.expiration-ms}")
-    private long expirationMs;
-
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public JwtUtil(JwtKeyMaterial keyMaterial, @Value("${jwt.expiration-ms}") long expirationMs) {
+        this.keyMaterial = keyMaterial;
+        this.expirationMs = expirationMs;
+        this.parser = keyMaterial.newParser();
     }
 
     public String generateToken(String username, String role) {
         Date now = new Date();
         Date exp = new Date(now.getTime() + expirationMs);
-        return Jwts.builder()
-                .setSubject(username)
+        JwtBuilder builder = Jwts.builder();
+        if (keyMaterial.getKeyId() != null) {
+            builder.header().keyId(keyMaterial.getKeyId());
+        }
+        return builder
+                .subject(username)
                 .claim("role", role)
-                .setIssuedAt(now)
-                .setExpiration(exp)
-                .signWith(getSigningKey())
+                .issuedAt(now)
+                .expiration(exp)
+                .signWith(keyMaterial.getSigningKey())
                 .compact();
     }
 
-    public Jws<Claims> validateToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
+    public Jws<Claims> validateToken(CharSequence token) {
+        return parser.parseSignedClaims(token);
     }
 
-}
+    /**
+     * Variante sin excepciones para el filtro: devuelve null si el token es inválido o ha expirado.
+     */
+    public Claims parseClaims(CharSequence token) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 
+    public Map<String, Object> getJwks() {
+        return keyMaterial.toJwks();
+    }
+
+}
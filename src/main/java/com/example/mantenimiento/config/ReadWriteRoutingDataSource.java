@@ -0,0 +1,118 @@
+package com.example.mantenimiento.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Envía las transacciones de solo lectura a las réplicas (round-robin) y el resto al primario.
+ * Debe envolverse en un {@code LazyConnectionDataSourceProxy}: la conexión física se pide en la
+ * primera sentencia, cuando la marca readOnly de la transacción ya está fijada. Una réplica que
+ * falla al entregar conexión queda fuera durante {@code retryAfterMs} y se usa el primario.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long retryAfterMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, long retryAfterMs) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    // Lecturas propias recientes: el cliente acaba de escribir y la réplica puede ir con retraso
+    public static void forcePrimary(boolean forced) {
+        if (forced) {
+            PRIMARY_FORCED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_FORCED.remove();
+        }
+    }
+
+    /**
+     * Ejecuta {@code action} leyendo del primario en el hilo actual y deja la marca como estaba; para cargas
+     * compartidas que pueden correr en hilos sin la marca de la petición.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            forcePrimary(previous != null);
+        }
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get() != null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isAvailable()) {
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.markDown();
+                    log.warn("Réplica {} no disponible, se usa el primario durante {} ms: {}",
+                        replica.dataSource.getPoolName(), retryAfterMs, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private boolean routeToReplica() {
+        return !replicas.isEmpty()
+            && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            && PRIMARY_FORCED.get() == null;
+    }
+
+    @Override
+    public void close() {
+        // El primario es un bean propio y lo cierra Spring
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile long downUntil;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private boolean isAvailable() {
+            return System.currentTimeMillis() >= downUntil;
+        }
+
+        private void markDown() {
+            downUntil = System.currentTimeMillis() + retryAfterMs;
+        }
+    }
+}
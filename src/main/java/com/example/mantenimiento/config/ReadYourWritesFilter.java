@@ -0,0 +1,73 @@
+package com.example.mantenimiento.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tras una escritura, las lecturas del mismo usuario van al primario durante una ventana corta
+ * para que vea sus propios cambios aunque la réplica aún no los tenga. Se registra después de la
+ * cadena de seguridad, así que el usuario ya está autenticado.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final int MAX_TRACKED_CLIENTS = 10_000;
+
+    private final long windowMs;
+    private final Map<String, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(@Value("${datasource-routing.read-your-writes-ms:5000}") long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientKey();
+        if (client == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Long until = primaryUntil.get(client);
+        ReadWriteRoutingDataSource.forcePrimary(until != null && until > System.currentTimeMillis());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.forcePrimary(false);
+            if (isWrite(request.getMethod()) && response.getStatus() < 400) {
+                markWrite(client);
+            }
+        }
+    }
+
+    private void markWrite(String client) {
+        long now = System.currentTimeMillis();
+        if (primaryUntil.size() >= MAX_TRACKED_CLIENTS) {
+            primaryUntil.values().removeIf(until -> until <= now);
+        }
+        primaryUntil.put(client, now + windowMs);
+    }
+
+    private static String clientKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.mantenimiento.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,6 +11,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.concurrent.ForkJoinPool;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -25,6 +28,13 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool passwordHashingPool(@Value("${users.bulk.hashing-parallelism:0}") int parallelism) {
+        // Por defecto la mitad de los núcleos, dejando margen para el tráfico en vivo
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new ForkJoinPool(threads);
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -35,10 +45,15 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 // Permitir POST en login y register (rutas autenticación)
                 .requestMatchers(HttpMethod.POST, "/login", "/users/register").permitAll()
+                // Registro masivo solo para administradores
+                .requestMatchers(HttpMethod.POST, "/users/bulk").hasAuthority("ROLE_ADMIN")
+                // Actuator: solo salud e info son públicos; métricas y startup exponen pool, cachés, consultas y beans
+                .requestMatchers(HttpMethod.GET, "/actuator/health/**", "/actuator/info").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                 // Rutas públicas GET
                 .requestMatchers(HttpMethod.GET, 
-                    "/actuator/**",
                     "/error",
+                    "/.well-known/jwks.json",
                     "/v3/api-docs/**",
                     "/swagger-ui.html",
                     "/swagger-ui/**",
@@ -13,11 +13,14 @@ public final class ErrorMessages {
     public static final String PRODUCT_DESCRIPTION_MAX_LENGTH = "La descripción no puede superar 500 caracteres";
     public static final String PRODUCT_PRICE_POSITIVE = "El precio debe ser mayor que cero";
     public static final String PRODUCT_CATEGORY_REQUIRED = "La categoría es obligatoria";
+    public static final String PRODUCT_CATEGORY_NOT_FOUND = "La categoría indicada no existe";
     
     // Category errors
     public static final String CATEGORY_NOT_FOUND = "Categoría";
     public static final String CATEGORY_NAME_REQUIRED = "El nombre de la categoría es obligatorio";
     public static final String CATEGORY_NAME_MAX_LENGTH = "El nombre de la categoría no puede superar 120 caracteres";
+    public static final String CATEGORY_HAS_PRODUCTS = "La categoría tiene productos asociados";
+    public static final String CATEGORY_REASSIGN_TARGET_INVALID = "La categoría destino de la reasignación no es válida";
     
     // User errors
     public static final String USER_NOT_FOUND = "Usuario";
@@ -26,7 +29,22 @@ public final class ErrorMessages {
     public static final String USER_PASSWORD_REQUIRED = "La contraseña es obligatoria";
     public static final String USER_PASSWORD_LENGTH = "La contraseña debe tener entre 6 y 120 caracteres";
     public static final String USER_ROLE_INVALID_FORMAT = "El rol debe cumplir el formato ROLE_<NOMBRE>";
+    public static final String USER_USERNAME_ALREADY_EXISTS = "El nombre de usuario ya está registrado";
+    public static final String USER_BULK_SIZE = "El registro masivo admite entre 1 y 1000 usuarios";
     
+    // Change feed errors
+    public static final String SYNC_TOKEN_INVALID = "Token de sincronización inválido";
+    public static final String SYNC_TOKEN_EXPIRED = "El token de sincronización ha caducado; sincronice de nuevo desde el principio";
+    public static final String CHANGES_LIMIT_RANGE = "El parámetro limit está fuera de rango";
+
     // Auth errors
     public static final String INVALID_CREDENTIALS = "Credenciales inválidas";
+
+    // Infrastructure errors
+    public static final String DATABASE_UNAVAILABLE = "Servicio temporalmente no disponible, inténtelo de nuevo";
+    public static final String DATABASE_QUERY_TIMEOUT = "La consulta tardó demasiado, inténtelo de nuevo";
+
+    public static String notFound(String resourceType, String identifier) {
+        return resourceType + " no encontrado: " + identifier;
+    }
 }
@@ -15,6 +15,7 @@ public final class ValidationRules {
     public static final int MAX_USERNAME_LENGTH = 50;
     public static final int MIN_PASSWORD_LENGTH = 6;
     public static final int MAX_PASSWORD_LENGTH = 120;
+    public static final int MAX_BULK_USERS = 1000;
     public static final String USER_ROLE_PATTERN = "^ROLE_[A-Z_]+$";
     public static final String DEFAULT_USER_ROLE = "ROLE_USER";
     public static final BigDecimal MIN_PRICE = BigDecimal.ZERO;
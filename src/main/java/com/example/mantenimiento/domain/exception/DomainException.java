@@ -1,11 +1,15 @@
 package com.example.mantenimiento.domain.exception;
 
+/**
+ * Errores de negocio (404, 400, 409) que forman parte del flujo normal de las peticiones: no capturan
+ * la traza de pila, que es la parte cara de crear la excepción. La causa, si la hay, conserva la suya.
+ */
 public abstract class DomainException extends RuntimeException {
     protected DomainException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     protected DomainException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 }
@@ -0,0 +1,11 @@
+package com.example.mantenimiento.domain.exception;
+
+public class DuplicateResourceException extends DomainException {
+    public DuplicateResourceException(String message) {
+        super(message);
+    }
+
+    public DuplicateResourceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.mantenimiento.domain.exception;
+
+public class ResourceInUseException extends DomainException {
+    public ResourceInUseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
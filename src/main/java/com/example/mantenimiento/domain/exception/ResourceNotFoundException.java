@@ -1,7 +1,9 @@
 package com.example.mantenimiento.domain.exception;
 
+import com.example.mantenimiento.domain.constants.ErrorMessages;
+
 public class ResourceNotFoundException extends DomainException {
     public ResourceNotFoundException(String resourceType, String identifier) {
-        super(String.format("%s no encontrado: %s", resourceType, identifier));
+        super(ErrorMessages.notFound(resourceType, identifier));
     }
 }
@@ -0,0 +1,7 @@
+package com.example.mantenimiento.domain.exception;
+
+public class SyncTokenExpiredException extends DomainException {
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
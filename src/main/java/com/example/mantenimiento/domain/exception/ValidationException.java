@@ -4,4 +4,8 @@ public class ValidationException extends DomainException {
     public ValidationException(String message) {
         super(message);
     }
+
+    public ValidationException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
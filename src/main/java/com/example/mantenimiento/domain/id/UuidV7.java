@@ -0,0 +1,60 @@
+package com.example.mantenimiento.domain.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Identificadores UUIDv7 (RFC 9562): 48 bits de milisegundos Unix, un contador de 12 bits en
+ * rand_a y 62 bits aleatorios. Ordenados por tiempo, los INSERT caen al final del índice de la
+ * clave primaria en lugar de repartirse por todo el árbol como con UUIDv4.
+ * Monótonos dentro del proceso aunque coincidan en el mismo milisegundo o el reloj retroceda.
+ */
+public final class UuidV7 {
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RAND_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final int COUNTER_BITS = 12;
+
+    // Último valor emitido: milisegundos << 12 | contador
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+        throw new AssertionError("No se debe instanciar esta clase");
+    }
+
+    public static UUID generate() {
+        return generate(LAST, System.currentTimeMillis());
+    }
+
+    // Estado y reloj explícitos para los tests: LAST lo comparten todos los generadores del proceso
+    static UUID generate(AtomicLong last, long nowMillis) {
+        long sequence = nextSequence(last, nowMillis);
+        long mostSigBits = (sequence >>> COUNTER_BITS) << 16 | VERSION | (sequence & 0xFFFL);
+        long leastSigBits = ThreadLocalRandom.current().nextLong() & RAND_B_MASK | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Milisegundos Unix codificados en un UUIDv7.
+     */
+    public static long timestamp(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("No es un UUIDv7: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    private static long nextSequence(AtomicLong state, long nowMillis) {
+        long candidate = nowMillis << COUNTER_BITS;
+        while (true) {
+            long last = state.get();
+            // Mismo milisegundo o reloj hacia atrás: se incrementa el contador (y, si se agota, el milisegundo)
+            long next = candidate > last ? candidate : last + 1;
+            if (state.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
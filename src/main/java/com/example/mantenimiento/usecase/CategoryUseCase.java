@@ -1,8 +1,11 @@
 package com.example.mantenimiento.usecase;
 
 import com.example.mantenimiento.domain.model.Category;
+import com.example.mantenimiento.usecase.model.ChangeSet;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,9 +14,19 @@ public interface CategoryUseCase {
 
     Category create(Category category);
 
-    Category update(UUID id, Category category);
+    Optional<Category> update(UUID id, Category category);
 
     Optional<Category> getById(UUID id);
 
-    void deleteById(UUID id);
+    Map<UUID, Category> getByIds(Collection<UUID> ids);
+
+    /**
+     * @return false si no existe
+     */
+    boolean deleteById(UUID id);
+
+    /**
+     * Altas, modificaciones y borrados posteriores al token {@code since} (null: desde el principio).
+     */
+    ChangeSet<Category> changesSince(String since, Integer limit);
 }
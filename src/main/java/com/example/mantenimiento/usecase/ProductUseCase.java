@@ -1,6 +1,7 @@
 package com.example.mantenimiento.usecase;
 
 import com.example.mantenimiento.domain.model.Product;
+import com.example.mantenimiento.usecase.model.ChangeSet;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,9 +12,17 @@ public interface ProductUseCase {
 
     Product create(Product product);
 
-    Product update(UUID id, Product product);
+    Optional<Product> update(UUID id, Product product);
 
     Optional<Product> getById(UUID id);
 
-    void deleteById(UUID id);
+    /**
+     * @return false si no existe
+     */
+    boolean deleteById(UUID id);
+
+    /**
+     * Altas, modificaciones y borrados posteriores al token {@code since} (null: desde el principio).
+     */
+    ChangeSet<Product> changesSince(String since, Integer limit);
 }
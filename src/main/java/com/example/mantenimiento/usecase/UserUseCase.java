@@ -1,7 +1,12 @@
 package com.example.mantenimiento.usecase;
 
 import com.example.mantenimiento.domain.model.User;
+import com.example.mantenimiento.usecase.model.UserRegistrationOutcome;
+
+import java.util.List;
 
 public interface UserUseCase {
     User register(User user);
+
+    List<UserRegistrationOutcome> registerAll(List<User> users);
 }
@@ -8,6 +8,8 @@ import com.example.mantenimiento.usecase.AuthUseCase;
 import com.example.mantenimiento.usecase.exception.InvalidCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthUseCaseImpl implements AuthUseCase {
@@ -21,7 +23,10 @@ public class AuthUseCaseImpl implements AuthUseCase {
         this.jwtUtil = jwtUtil;
     }
 
+    // La búsqueda del usuario usa la transacción del repositorio; la conexión vuelve al pool
+    // antes de comprobar la password con BCrypt
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String authenticate(String username, String password) {
         UserEntity userEntity = userRepository.findByUsername(username)
                 .orElseThrow(() -> new InvalidCredentialsException(ErrorMessages.INVALID_CREDENTIALS));
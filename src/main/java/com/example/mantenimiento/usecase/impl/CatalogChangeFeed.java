@@ -0,0 +1,147 @@
+package com.example.mantenimiento.usecase.impl;
+
+import com.example.mantenimiento.adapter.outgoing.persistence.CatalogChange;
+import com.example.mantenimiento.adapter.outgoing.persistence.CatalogChangeRepository;
+import com.example.mantenimiento.domain.constants.ErrorMessages;
+import com.example.mantenimiento.domain.exception.SyncTokenExpiredException;
+import com.example.mantenimiento.domain.exception.ValidationException;
+import com.example.mantenimiento.domain.model.Category;
+import com.example.mantenimiento.domain.model.Product;
+import com.example.mantenimiento.usecase.model.ChangeSet;
+import com.example.mantenimiento.usecase.model.SyncToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paginación del feed de cambios común a productos y categorías, y purga periódica de las lápidas que
+ * superan la retención. Solo se entregan cambios anteriores al horizonte (reloj de la base de datos menos
+ * {@code catalog.changes.settle-ms}): así una transacción que confirma tarde no queda por detrás de un
+ * token ya entregado. Las escrituras del catálogo usan {@link #WRITE_TIMEOUT} como timeout de transacción,
+ * que no puede superar ese margen.
+ */
+@Component
+public class CatalogChangeFeed implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeFeed.class);
+
+    // Timeout de las transacciones que escriben productos o categorías (segundos, admite placeholder)
+    public static final String WRITE_TIMEOUT = "${catalog.changes.write-timeout-seconds:4}";
+
+    private final CatalogChangeRepository changeRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final Duration settle;
+    private final long pruneIntervalMs;
+
+    private volatile ScheduledExecutorService executor;
+
+    public CatalogChangeFeed(
+        CatalogChangeRepository changeRepository,
+        @Value("${catalog.changes.default-page-size:500}") int defaultPageSize,
+        @Value("${catalog.changes.max-page-size:1000}") int maxPageSize,
+        @Value("${catalog.changes.settle-ms:5000}") long settleMs,
+        @Value(WRITE_TIMEOUT) int writeTimeoutSeconds,
+        @Value("${catalog.changes.prune-interval-ms:3600000}") long pruneIntervalMs
+    ) {
+        // Una escritura que confirme después del horizonte ya entregado quedaría por detrás del token
+        if (writeTimeoutSeconds <= 0 || writeTimeoutSeconds * 1000L > settleMs) {
+            throw new IllegalStateException("catalog.changes.write-timeout-seconds debe ser positivo y no superar settle-ms");
+        }
+        this.changeRepository = changeRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.settle = Duration.ofMillis(settleMs);
+        this.pruneIntervalMs = pruneIntervalMs;
+    }
+
+    public ChangeSet<Product> products(String since, Integer limit) {
+        return page(since, limit, changeRepository::findProductChanges);
+    }
+
+    public ChangeSet<Category> categories(String since, Integer limit) {
+        return page(since, limit, changeRepository::findCategoryChanges);
+    }
+
+    <T> ChangeSet<T> page(String since, Integer limit, CatalogChangeRepository.ChangeQuery<T> query) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new ValidationException(ErrorMessages.CHANGES_LIMIT_RANGE);
+        }
+        SyncToken from = SyncToken.decode(since);
+        Instant until = changeRepository.horizon(settle);
+        if (!from.isStart() && !changeRepository.isRetained(from.getChangedAt(), until.plus(settle))) {
+            throw new SyncTokenExpiredException(ErrorMessages.SYNC_TOKEN_EXPIRED);
+        }
+        // Una fila de más para saber si hay otra página
+        List<CatalogChange<T>> rows = query.find(from.getChangedAt(), from.getId(), until, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<CatalogChange<T>> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        List<T> changed = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        for (CatalogChange<T> row : page) {
+            if (row.isDeleted()) {
+                deleted.add(row.getId());
+            } else {
+                changed.add(row.getValue());
+            }
+        }
+        return new ChangeSet<>(changed, deleted, next(from, page, hasMore, until), hasMore);
+    }
+
+    // Sin más cambios el token avanza hasta el horizonte: en un catálogo sin cambios los clientes no caducan
+    private static <T> SyncToken next(SyncToken from, List<CatalogChange<T>> page, boolean hasMore, Instant until) {
+        if (hasMore) {
+            CatalogChange<T> last = page.get(page.size() - 1);
+            return new SyncToken(last.getChangedAt(), last.getId());
+        }
+        return until.isAfter(from.getChangedAt()) ? new SyncToken(until, SyncToken.START.getId()) : from;
+    }
+
+    private void pruneTombstones() {
+        try {
+            int pruned = changeRepository.pruneTombstones();
+            if (pruned > 0) {
+                log.info("Purgadas {} lápidas del feed de cambios", pruned);
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron purgar las lápidas del feed de cambios: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-tombstone-pruner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pruneTombstones, pruneIntervalMs, pruneIntervalMs, TimeUnit.MILLISECONDS);
+        executor = scheduler;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = executor;
+        executor = null;
+        if (current != null) {
+            current.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
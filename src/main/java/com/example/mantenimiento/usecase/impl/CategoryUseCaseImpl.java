@@ -1,15 +1,31 @@
 package com.example.mantenimiento.usecase.impl;
 
+import com.example.mantenimiento.adapter.outgoing.cache.CacheInvalidationBus;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogEntityType;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogIdFilter;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogSnapshot;
+import com.example.mantenimiento.adapter.outgoing.cache.CategoryCache;
+import com.example.mantenimiento.adapter.outgoing.cache.InMemoryCatalog;
 import com.example.mantenimiento.adapter.outgoing.persistence.CategoryRepository;
+import com.example.mantenimiento.adapter.outgoing.persistence.PersistenceErrors;
+import com.example.mantenimiento.adapter.outgoing.persistence.ProductRepository;
 import com.example.mantenimiento.adapter.outgoing.persistence.entity.CategoryEntity;
 import com.example.mantenimiento.adapter.outgoing.persistence.mapper.CategoryEntityMapper;
 import com.example.mantenimiento.domain.constants.ErrorMessages;
-import com.example.mantenimiento.domain.exception.ResourceNotFoundException;
+import com.example.mantenimiento.domain.exception.ResourceInUseException;
+import com.example.mantenimiento.domain.exception.ValidationException;
 import com.example.mantenimiento.domain.model.Category;
 import com.example.mantenimiento.usecase.CategoryUseCase;
+import com.example.mantenimiento.usecase.model.ChangeSet;
+import com.example.mantenimiento.usecase.model.CategoryDeletePolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -18,14 +34,49 @@ import java.util.stream.Collectors;
 public class CategoryUseCaseImpl implements CategoryUseCase {
     private final CategoryRepository categoryRepository;
     private final CategoryEntityMapper categoryEntityMapper;
+    private final ProductRepository productRepository;
+    private final CategoryCache categoryCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final CatalogIdFilter idFilter;
+    private final InMemoryCatalog inMemoryCatalog;
+    private final CatalogChangeFeed changeFeed;
+    private final CategoryDeletePolicy deletePolicy;
+    private final UUID reassignTargetId;
 
-    public CategoryUseCaseImpl(CategoryRepository categoryRepository, CategoryEntityMapper categoryEntityMapper) {
+    public CategoryUseCaseImpl(
+        CategoryRepository categoryRepository,
+        CategoryEntityMapper categoryEntityMapper,
+        ProductRepository productRepository,
+        CategoryCache categoryCache,
+        CacheInvalidationBus invalidationBus,
+        CatalogIdFilter idFilter,
+        InMemoryCatalog inMemoryCatalog,
+        CatalogChangeFeed changeFeed,
+        @Value("${catalog.categories.delete-policy:RESTRICT}") CategoryDeletePolicy deletePolicy,
+        @Value("${catalog.categories.reassign-to:}") String reassignTargetId
+    ) {
         this.categoryRepository = categoryRepository;
         this.categoryEntityMapper = categoryEntityMapper;
+        this.productRepository = productRepository;
+        this.categoryCache = categoryCache;
+        this.invalidationBus = invalidationBus;
+        this.idFilter = idFilter;
+        this.inMemoryCatalog = inMemoryCatalog;
+        this.changeFeed = changeFeed;
+        this.deletePolicy = deletePolicy;
+        this.reassignTargetId = reassignTargetId == null || reassignTargetId.isBlank() ? null : UUID.fromString(reassignTargetId);
+        if (deletePolicy == CategoryDeletePolicy.REASSIGN && this.reassignTargetId == null) {
+            throw new IllegalStateException("catalog.categories.reassign-to es obligatorio con la política REASSIGN");
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Category> list() {
+        CatalogSnapshot catalog = inMemoryCatalog.current();
+        if (catalog != null) {
+            return catalog.categories();
+        }
         return categoryRepository.findAll()
             .stream()
             .map(categoryEntityMapper::toDomain)
@@ -33,16 +84,24 @@ public class CategoryUseCaseImpl implements CategoryUseCase {
     }
 
     @Override
+    @Transactional(timeoutString = CatalogChangeFeed.WRITE_TIMEOUT)
     public Category create(Category category) {
-        CategoryEntity entity = categoryEntityMapper.toEntity(category);
+        CategoryEntity entity = categoryEntityMapper.toNewEntity(category);
         CategoryEntity saved = categoryRepository.save(entity);
-        return categoryEntityMapper.toDomain(saved);
+        Category created = categoryEntityMapper.toDomain(saved);
+        invalidationBus.publish(CatalogEntityType.CATEGORY, created.getId());
+        inMemoryCatalog.publishAfterCommit(catalog -> catalog.withCategory(created));
+        return created;
     }
 
     @Override
-    public Category update(UUID id, Category category) {
-        CategoryEntity existing = categoryRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CATEGORY_NOT_FOUND, id.toString()));
+    @Transactional(timeoutString = CatalogChangeFeed.WRITE_TIMEOUT)
+    public Optional<Category> update(UUID id, Category category) {
+        Optional<CategoryEntity> found = categoryRepository.findById(id);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        CategoryEntity existing = found.get();
         
         Category updatedCategory = category.withUpdatedName(category.getName());
         
@@ -54,20 +113,83 @@ public class CategoryUseCaseImpl implements CategoryUseCase {
         );
         
         CategoryEntity saved = categoryRepository.save(updatedEntity);
-        return categoryEntityMapper.toDomain(saved);
+        Category updated = categoryEntityMapper.toDomain(saved);
+        invalidationBus.publish(CatalogEntityType.CATEGORY, id);
+        inMemoryCatalog.publishAfterCommit(catalog -> catalog.withCategory(updated));
+        return Optional.of(updated);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Category> getById(UUID id) {
-        return categoryRepository.findById(id)
+        CatalogSnapshot catalog = inMemoryCatalog.current();
+        if (catalog != null) {
+            return catalog.category(id);
+        }
+        if (!idFilter.mightContain(CatalogEntityType.CATEGORY, id)) {
+            return Optional.empty();
+        }
+        Optional<Category> category = categoryRepository.findById(id)
             .map(categoryEntityMapper::toDomain);
+        if (category.isEmpty()) {
+            idFilter.recordFalsePositive(CatalogEntityType.CATEGORY);
+        }
+        return category;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, Category> getByIds(Collection<UUID> ids) {
+        CatalogSnapshot catalog = inMemoryCatalog.current();
+        if (catalog != null) {
+            return catalog.categories(ids);
+        }
+        return categoryCache.getAll(ids);
     }
 
     @Override
-    public void deleteById(UUID id) {
+    @Transactional(timeoutString = CatalogChangeFeed.WRITE_TIMEOUT)
+    public boolean deleteById(UUID id) {
         if (!categoryRepository.existsById(id)) {
-            throw new ResourceNotFoundException(ErrorMessages.CATEGORY_NOT_FOUND, id.toString());
+            return false;
+        }
+        switch (deletePolicy) {
+            case CASCADE -> productRepository.deleteByCategoryId(id);
+            case REASSIGN -> {
+                if (reassignTargetId.equals(id) || !categoryCache.exists(reassignTargetId)) {
+                    throw new ValidationException(ErrorMessages.CATEGORY_REASSIGN_TARGET_INVALID);
+                }
+                productRepository.reassignCategory(id, reassignTargetId);
+            }
+            case RESTRICT -> {
+                // Sin comprobación previa: la FK de products rechaza el borrado si hay productos
+            }
+        }
+        try {
+            categoryRepository.deleteById(id);
+            categoryRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (PersistenceErrors.isForeignKeyViolation(e)) {
+                throw new ResourceInUseException(ErrorMessages.CATEGORY_HAS_PRODUCTS, e);
+            }
+            throw e;
         }
-        categoryRepository.deleteById(id);
+        invalidationBus.publish(CatalogEntityType.CATEGORY, id);
+        if (deletePolicy != CategoryDeletePolicy.RESTRICT) {
+            // CASCADE y REASSIGN modifican productos con una sola sentencia
+            invalidationBus.publishAll(CatalogEntityType.PRODUCT);
+        }
+        // Quitar la categoría también quita sus productos: los de CASCADE; con RESTRICT no hay
+        inMemoryCatalog.publishAfterCommit(catalog -> (deletePolicy == CategoryDeletePolicy.REASSIGN
+            ? catalog.withProductsMoved(id, reassignTargetId)
+            : catalog).withoutCategory(id));
+        return true;
+    }
+
+    // Del primario, por lo mismo que ProductUseCaseImpl.changesSince
+    @Override
+    @Transactional
+    public ChangeSet<Category> changesSince(String since, Integer limit) {
+        return changeFeed.categories(since, limit);
     }
 }
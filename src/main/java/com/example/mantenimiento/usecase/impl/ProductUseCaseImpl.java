@@ -1,13 +1,23 @@
 package com.example.mantenimiento.usecase.impl;
 
+import com.example.mantenimiento.adapter.outgoing.cache.CacheInvalidationBus;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogEntityType;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogIdFilter;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogSnapshot;
+import com.example.mantenimiento.adapter.outgoing.cache.CategoryCache;
+import com.example.mantenimiento.adapter.outgoing.cache.InMemoryCatalog;
+import com.example.mantenimiento.adapter.outgoing.persistence.PersistenceErrors;
 import com.example.mantenimiento.adapter.outgoing.persistence.ProductRepository;
 import com.example.mantenimiento.adapter.outgoing.persistence.entity.ProductEntity;
 import com.example.mantenimiento.adapter.outgoing.persistence.mapper.ProductEntityMapper;
 import com.example.mantenimiento.domain.constants.ErrorMessages;
-import com.example.mantenimiento.domain.exception.ResourceNotFoundException;
+import com.example.mantenimiento.domain.exception.ValidationException;
 import com.example.mantenimiento.domain.model.Product;
 import com.example.mantenimiento.usecase.ProductUseCase;
+import com.example.mantenimiento.usecase.model.ChangeSet;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,14 +28,37 @@ import java.util.stream.Collectors;
 public class ProductUseCaseImpl implements ProductUseCase {
     private final ProductRepository productRepository;
     private final ProductEntityMapper productEntityMapper;
+    private final CategoryCache categoryCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final CatalogIdFilter idFilter;
+    private final InMemoryCatalog inMemoryCatalog;
+    private final CatalogChangeFeed changeFeed;
 
-    public ProductUseCaseImpl(ProductRepository productRepository, ProductEntityMapper productEntityMapper) {
+    public ProductUseCaseImpl(
+        ProductRepository productRepository,
+        ProductEntityMapper productEntityMapper,
+        CategoryCache categoryCache,
+        CacheInvalidationBus invalidationBus,
+        CatalogIdFilter idFilter,
+        InMemoryCatalog inMemoryCatalog,
+        CatalogChangeFeed changeFeed
+    ) {
         this.productRepository = productRepository;
         this.productEntityMapper = productEntityMapper;
+        this.categoryCache = categoryCache;
+        this.invalidationBus = invalidationBus;
+        this.idFilter = idFilter;
+        this.inMemoryCatalog = inMemoryCatalog;
+        this.changeFeed = changeFeed;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> list() {
+        CatalogSnapshot catalog = inMemoryCatalog.current();
+        if (catalog != null) {
+            return catalog.products();
+        }
         return productRepository.findAll()
             .stream()
             .map(productEntityMapper::toDomain)
@@ -33,16 +66,24 @@ public class ProductUseCaseImpl implements ProductUseCase {
     }
 
     @Override
+    @Transactional(timeoutString = CatalogChangeFeed.WRITE_TIMEOUT)
     public Product create(Product product) {
-        ProductEntity entity = productEntityMapper.toEntity(product);
-        ProductEntity saved = productRepository.save(entity);
-        return productEntityMapper.toDomain(saved);
+        requireExistingCategory(product.getCategoryId());
+        ProductEntity entity = productEntityMapper.toNewEntity(product);
+        Product created = productEntityMapper.toDomain(save(entity));
+        inMemoryCatalog.publishAfterCommit(catalog -> catalog.withProduct(created));
+        return created;
     }
 
     @Override
-    public Product update(UUID id, Product product) {
-        ProductEntity existing = productRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.PRODUCT_NOT_FOUND, id.toString()));
+    @Transactional(timeoutString = CatalogChangeFeed.WRITE_TIMEOUT)
+    public Optional<Product> update(UUID id, Product product) {
+        Optional<ProductEntity> found = productRepository.findById(id);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        ProductEntity existing = found.get();
+        requireExistingCategory(product.getCategoryId());
         
         Product updatedProduct = product.withUpdatedData(
             product.getName(),
@@ -61,21 +102,66 @@ public class ProductUseCaseImpl implements ProductUseCase {
                 .build()
         );
         
-        ProductEntity saved = productRepository.save(updatedEntity);
-        return productEntityMapper.toDomain(saved);
+        Product updated = productEntityMapper.toDomain(save(updatedEntity));
+        inMemoryCatalog.publishAfterCommit(catalog -> catalog.withProduct(updated));
+        return Optional.of(updated);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Product> getById(UUID id) {
-        return productRepository.findById(id)
+        CatalogSnapshot catalog = inMemoryCatalog.current();
+        if (catalog != null) {
+            return catalog.product(id);
+        }
+        // Ids que seguro no existen (barridos de bots): 404 sin consultar la base de datos
+        if (!idFilter.mightContain(CatalogEntityType.PRODUCT, id)) {
+            return Optional.empty();
+        }
+        Optional<Product> product = productRepository.findById(id)
             .map(productEntityMapper::toDomain);
+        if (product.isEmpty()) {
+            idFilter.recordFalsePositive(CatalogEntityType.PRODUCT);
+        }
+        return product;
     }
 
     @Override
-    public void deleteById(UUID id) {
+    @Transactional(timeoutString = CatalogChangeFeed.WRITE_TIMEOUT)
+    public boolean deleteById(UUID id) {
         if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException(ErrorMessages.PRODUCT_NOT_FOUND, id.toString());
+            return false;
         }
         productRepository.deleteById(id);
+        invalidationBus.publish(CatalogEntityType.PRODUCT, id);
+        inMemoryCatalog.publishAfterCommit(catalog -> catalog.withoutProduct(id));
+        return true;
+    }
+
+    // Transacción de escritura: del primario. En una réplica con retraso faltarían filas ya bajo el horizonte
+    @Override
+    @Transactional
+    public ChangeSet<Product> changesSince(String since, Integer limit) {
+        return changeFeed.products(since, limit);
+    }
+
+    private void requireExistingCategory(UUID categoryId) {
+        // Se resuelve contra la caché de categorías; la FK en base de datos cubre las carreras con borrados
+        if (!categoryCache.exists(categoryId)) {
+            throw new ValidationException(ErrorMessages.PRODUCT_CATEGORY_NOT_FOUND);
+        }
+    }
+
+    private ProductEntity save(ProductEntity entity) {
+        try {
+            ProductEntity saved = productRepository.saveAndFlush(entity);
+            invalidationBus.publish(CatalogEntityType.PRODUCT, saved.getId());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (PersistenceErrors.isForeignKeyViolation(e)) {
+                throw new ValidationException(ErrorMessages.PRODUCT_CATEGORY_NOT_FOUND, e);
+            }
+            throw e;
+        }
     }
 }
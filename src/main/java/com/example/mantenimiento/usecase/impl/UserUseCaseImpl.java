@@ -1,26 +1,55 @@
 package com.example.mantenimiento.usecase.impl;
 
+import com.example.mantenimiento.adapter.outgoing.persistence.PersistenceErrors;
 import com.example.mantenimiento.adapter.outgoing.persistence.UserRepository;
 import com.example.mantenimiento.adapter.outgoing.persistence.entity.UserEntity;
 import com.example.mantenimiento.adapter.outgoing.persistence.mapper.UserEntityMapper;
+import com.example.mantenimiento.domain.constants.ErrorMessages;
+import com.example.mantenimiento.domain.exception.DuplicateResourceException;
+import com.example.mantenimiento.domain.id.UuidV7;
 import com.example.mantenimiento.domain.model.User;
 import com.example.mantenimiento.usecase.UserUseCase;
+import com.example.mantenimiento.usecase.model.UserRegistrationOutcome;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class UserUseCaseImpl implements UserUseCase {
+    // Reintentos de saveAll cuando otro alta confirma alguno de los nombres del lote a la vez
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserEntityMapper userEntityMapper;
+    private final ForkJoinPool passwordHashingPool;
 
-    public UserUseCaseImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, UserEntityMapper userEntityMapper) {
+    public UserUseCaseImpl(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        UserEntityMapper userEntityMapper,
+        ForkJoinPool passwordHashingPool
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.userEntityMapper = userEntityMapper;
+        this.passwordHashingPool = passwordHashingPool;
     }
 
     @Override
+    @Transactional
     public User register(User user) {
         User userWithEncodedPassword = User.builder()
             .id(user.getId())
@@ -29,8 +58,106 @@ public class UserUseCaseImpl implements UserUseCase {
             .role(user.getRole())
             .build();
         
-        UserEntity entity = userEntityMapper.toEntity(userWithEncodedPassword);
-        UserEntity saved = userRepository.save(entity);
+        UserEntity entity = userEntityMapper.toNewEntity(userWithEncodedPassword);
+        // Sin SELECT previo: el índice único decide y la violación se traduce a 409
+        UserEntity saved = saveUnique(() -> userRepository.saveAndFlush(entity));
         return userEntityMapper.toDomain(saved);
     }
+
+    // Sin transacción envolvente: no se retiene una conexión mientras BCrypt procesa el lote.
+    // La comprobación previa y saveAll usan cada una su propia transacción de repositorio; si entre ambas
+    // otro alta confirma uno de los nombres, el lote se reintenta con esos nombres como duplicados.
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<UserRegistrationOutcome> registerAll(List<User> users) {
+        Set<String> taken = new HashSet<>(userRepository.findExistingUsernames(
+            users.stream().map(UserUseCaseImpl::normalize).collect(Collectors.toSet())
+        ));
+
+        List<UserRegistrationOutcome> outcomes = new ArrayList<>(users.size());
+        List<User> toCreate = new ArrayList<>();
+        for (User user : users) {
+            if (!taken.add(normalize(user))) {
+                outcomes.add(UserRegistrationOutcome.duplicate(user.getUsername(), ErrorMessages.USER_USERNAME_ALREADY_EXISTS));
+            } else {
+                outcomes.add(null);
+                toCreate.add(user);
+            }
+        }
+
+        List<UserEntity> entities = hashPasswords(toCreate);
+        Iterator<User> created = saveAllNotTaken(entities, outcomes)
+            .stream()
+            .map(userEntityMapper::toDomain)
+            .iterator();
+        outcomes.replaceAll(outcome -> outcome != null ? outcome : UserRegistrationOutcome.created(created.next()));
+        return outcomes;
+    }
+
+    // Los huecos nulos de outcomes corresponden, en orden, a entities
+    private List<UserEntity> saveAllNotTaken(List<UserEntity> entities, List<UserRegistrationOutcome> outcomes) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return userRepository.saveAll(entities);
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_BATCH_ATTEMPTS || !PersistenceErrors.isUniqueViolation(e, UserEntity.USERNAME_CONSTRAINTS)) {
+                    throw translated(e);
+                }
+                // La transacción de saveAll se deshizo entera: se vuelve a consultar qué nombres están ya ocupados
+                Set<String> taken = new HashSet<>(userRepository.findExistingUsernames(
+                    entities.stream().map(entity -> entity.getUsername().toLowerCase(Locale.ROOT)).collect(Collectors.toSet())
+                ));
+                if (taken.isEmpty()) {
+                    throw translated(e);
+                }
+                Iterator<UserEntity> pending = entities.iterator();
+                for (int i = 0; i < outcomes.size(); i++) {
+                    if (outcomes.get(i) != null) {
+                        continue;
+                    }
+                    UserEntity entity = pending.next();
+                    if (taken.contains(entity.getUsername().toLowerCase(Locale.ROOT))) {
+                        outcomes.set(i, UserRegistrationOutcome.duplicate(entity.getUsername(), ErrorMessages.USER_USERNAME_ALREADY_EXISTS));
+                        pending.remove();
+                    } else {
+                        // @PostPersist ya la marcó como existente aunque el INSERT no se confirmara
+                        entity.markNew();
+                    }
+                }
+            }
+        }
+    }
+
+    private List<UserEntity> hashPasswords(List<User> users) {
+        // BCrypt es intencionalmente lento: se reparte en un pool acotado para no acaparar todos los núcleos.
+        // Entidades marcadas como nuevas: persist sin SELECT previo y los INSERT se agrupan en lotes.
+        return passwordHashingPool.submit(() -> users.parallelStream()
+            .map(user -> userEntityMapper.toNewEntity(User.builder()
+                .id(user.getId() != null ? user.getId() : UuidV7.generate())
+                .username(user.getUsername())
+                .password(passwordEncoder.encode(user.getPassword()))
+                .role(user.getRole())
+                .build()))
+            .collect(Collectors.toList())
+        ).join();
+    }
+
+    private <T> T saveUnique(Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            throw translated(e);
+        }
+    }
+
+    private static RuntimeException translated(DataIntegrityViolationException e) {
+        if (PersistenceErrors.isUniqueViolation(e, UserEntity.USERNAME_CONSTRAINTS)) {
+            return new DuplicateResourceException(ErrorMessages.USER_USERNAME_ALREADY_EXISTS, e);
+        }
+        return e;
+    }
+
+    private static String normalize(User user) {
+        return user.getUsername().toLowerCase(Locale.ROOT);
+    }
 }
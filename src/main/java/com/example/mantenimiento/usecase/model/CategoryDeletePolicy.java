@@ -0,0 +1,10 @@
+package com.example.mantenimiento.usecase.model;
+
+public enum CategoryDeletePolicy {
+    // Rechaza el borrado (409) si la categoría tiene productos
+    RESTRICT,
+    // Borra los productos de la categoría en una sola sentencia
+    CASCADE,
+    // Mueve los productos a la categoría configurada en catalog.categories.reassign-to
+    REASSIGN
+}
@@ -0,0 +1,39 @@
+package com.example.mantenimiento.usecase.model;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Página del feed de cambios: altas y modificaciones con su estado actual, ids borrados y el token
+ * desde el que pedir la siguiente.
+ */
+public class ChangeSet<T> {
+    private final List<T> changed;
+    private final List<UUID> deleted;
+    private final SyncToken next;
+    private final boolean hasMore;
+
+    public ChangeSet(List<T> changed, List<UUID> deleted, SyncToken next, boolean hasMore) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.next = next;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    public List<UUID> getDeleted() {
+        return deleted;
+    }
+
+    public SyncToken getNext() {
+        return next;
+    }
+
+    // true: hay más cambios ya disponibles, pedir de nuevo sin esperar
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
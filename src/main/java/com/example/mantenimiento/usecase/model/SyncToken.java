@@ -0,0 +1,69 @@
+package com.example.mantenimiento.usecase.model;
+
+import com.example.mantenimiento.domain.constants.ErrorMessages;
+import com.example.mantenimiento.domain.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición en el feed de cambios: el último (momento del cambio, id) entregado. Viaja como texto opaco
+ * en Base64 URL; la versión al principio permite cambiar el formato sin invalidar los tokens emitidos.
+ */
+public final class SyncToken {
+    // Anterior a cualquier cambio: sincronización completa
+    public static final SyncToken START = new SyncToken(Instant.EPOCH, new UUID(0, 0));
+
+    private static final String VERSION = "1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Instant changedAt;
+    private final UUID id;
+
+    public SyncToken(Instant changedAt, UUID id) {
+        // timestamptz guarda microsegundos
+        this.changedAt = changedAt.truncatedTo(ChronoUnit.MICROS);
+        this.id = id;
+    }
+
+    /**
+     * @throws ValidationException si el texto no es un token emitido por este servicio
+     */
+    public static SyncToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new ValidationException(ErrorMessages.SYNC_TOKEN_INVALID);
+            }
+            long micros = Long.parseLong(parts[1]);
+            Instant changedAt = Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+            return new SyncToken(changedAt, UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(ErrorMessages.SYNC_TOKEN_INVALID, e);
+        }
+    }
+
+    public String encode() {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, changedAt);
+        return ENCODER.encodeToString((VERSION + ":" + micros + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public boolean isStart() {
+        return changedAt.equals(START.changedAt) && id.equals(START.id);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.mantenimiento.usecase.model;
+
+import com.example.mantenimiento.domain.model.User;
+
+public class UserRegistrationOutcome {
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    private final String username;
+    private final Status status;
+    private final User user;
+    private final String message;
+
+    private UserRegistrationOutcome(String username, Status status, User user, String message) {
+        this.username = username;
+        this.status = status;
+        this.user = user;
+        this.message = message;
+    }
+
+    public static UserRegistrationOutcome created(User user) {
+        return new UserRegistrationOutcome(user.getUsername(), Status.CREATED, user, null);
+    }
+
+    public static UserRegistrationOutcome duplicate(String username, String message) {
+        return new UserRegistrationOutcome(username, Status.DUPLICATE, null, message);
+    }
+
+    public static UserRegistrationOutcome invalid(String username, String message) {
+        return new UserRegistrationOutcome(username, Status.INVALID, null, message);
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
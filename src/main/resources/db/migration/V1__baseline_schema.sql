@@ -1,3 +1,5 @@
+-- Esquema inicial (equivalente al antiguo db/init.sql). Las bases existentes se marcan como
+-- baseline en la versión 1 (spring.flyway.baseline-on-migrate) y continúan desde V2.
 CREATE TABLE IF NOT EXISTS users (
   id UUID PRIMARY KEY,
   username VARCHAR(100) NOT NULL UNIQUE,
@@ -17,6 +19,3 @@ CREATE TABLE IF NOT EXISTS products (
   price NUMERIC(12,2) NOT NULL,
   category_id UUID REFERENCES categories(id)
 );
-
--- Insert a default user (password 'password' hashed with BCrypt should be inserted manually later)
-
@@ -0,0 +1,6 @@
+-- Filtrado/join de productos por categoría y búsqueda/orden por nombre
+CREATE INDEX IF NOT EXISTS ix_products_category_id ON products (category_id);
+CREATE INDEX IF NOT EXISTS ix_products_name ON products (name);
+
+-- Unicidad de username sin distinguir mayúsculas; sirve las búsquedas por lower(username)
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_username_lower ON users (lower(username));
@@ -0,0 +1,13 @@
+-- Las bases creadas con ddl-auto: update no tienen la FK products.category_id -> categories.id.
+-- NOT VALID la aplica a las filas nuevas sin bloquear la tabla revisando posibles huérfanos antiguos;
+-- se puede validar después con ALTER TABLE products VALIDATE CONSTRAINT fk_products_category.
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_constraint
+        WHERE conrelid = 'products'::regclass AND contype = 'f'
+    ) THEN
+        ALTER TABLE products
+            ADD CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (id) NOT VALID;
+    END IF;
+END $$;
@@ -0,0 +1,58 @@
+-- Seguimiento de cambios del catálogo para el feed GET /products/changes y /categories/changes.
+-- created_at/updated_at y las lápidas los mantienen triggers: también cubren las sentencias masivas
+-- (reasignación y borrado en cascada de productos) y los cambios hechos fuera de la aplicación.
+-- clock_timestamp() y no now(): marca el momento de la escritura, no el inicio de la transacción.
+
+-- now() es estable: añadir la columna no reescribe la tabla; las filas existentes quedan con la fecha de la migración
+ALTER TABLE categories
+    ADD COLUMN IF NOT EXISTS created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+-- Orden del feed: (updated_at, id) con paginación por clave
+CREATE INDEX IF NOT EXISTS ix_categories_updated_at ON categories (updated_at, id);
+CREATE INDEX IF NOT EXISTS ix_products_updated_at ON products (updated_at, id);
+
+-- Un borrado deja la fila aquí durante catalog.changes.tombstone-retention-days
+CREATE TABLE IF NOT EXISTS catalog_tombstones (
+  entity_type VARCHAR(20) NOT NULL,
+  id UUID NOT NULL,
+  deleted_at TIMESTAMPTZ NOT NULL,
+  PRIMARY KEY (entity_type, id)
+);
+CREATE INDEX IF NOT EXISTS ix_catalog_tombstones_deleted_at ON catalog_tombstones (entity_type, deleted_at, id);
+
+CREATE OR REPLACE FUNCTION catalog_touch() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        NEW.created_at := clock_timestamp();
+    ELSE
+        NEW.created_at := OLD.created_at;
+    END IF;
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION catalog_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO catalog_tombstones (entity_type, id, deleted_at)
+    VALUES (TG_ARGV[0], OLD.id, clock_timestamp())
+    ON CONFLICT (entity_type, id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+    RETURN OLD;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS categories_touch ON categories;
+CREATE TRIGGER categories_touch BEFORE INSERT OR UPDATE ON categories
+    FOR EACH ROW EXECUTE FUNCTION catalog_touch();
+DROP TRIGGER IF EXISTS products_touch ON products;
+CREATE TRIGGER products_touch BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION catalog_touch();
+
+DROP TRIGGER IF EXISTS categories_tombstone ON categories;
+CREATE TRIGGER categories_tombstone AFTER DELETE ON categories
+    FOR EACH ROW EXECUTE FUNCTION catalog_tombstone('CATEGORY');
+DROP TRIGGER IF EXISTS products_tombstone ON products;
+CREATE TRIGGER products_tombstone AFTER DELETE ON products
+    FOR EACH ROW EXECUTE FUNCTION catalog_tombstone('PRODUCT');
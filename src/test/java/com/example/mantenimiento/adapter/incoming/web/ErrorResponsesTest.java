@@ -0,0 +1,49 @@
+package com.example.mantenimiento.adapter.incoming.web;
+
+import com.example.mantenimiento.adapter.incoming.dto.ApiErrorResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ErrorResponsesTest {
+
+    @Test
+    void timestamp_isIsoOffsetDateTimeWithMillis() {
+        long millis = 1_771_439_143_007L;
+
+        String timestamp = ErrorResponses.timestamp(millis);
+
+        assertEquals(millis, OffsetDateTime.parse(timestamp).toInstant().toEpochMilli());
+        assertEquals("007", timestamp.substring(20, 23));
+    }
+
+    @Test
+    void timestamp_reformatsWhenSecondChanges() {
+        long millis = 1_771_439_143_999L;
+
+        String first = ErrorResponses.timestamp(millis);
+        String next = ErrorResponses.timestamp(millis + 1);
+
+        assertEquals(millis, OffsetDateTime.parse(first).toInstant().toEpochMilli());
+        assertEquals(millis + 1, OffsetDateTime.parse(next).toInstant().toEpochMilli());
+    }
+
+    @Test
+    void of_buildsStandardErrorBody() {
+        ResponseEntity<ApiErrorResponse> response = ErrorResponses.of(HttpStatus.NOT_FOUND, "Producto no encontrado: 1", "/products/1");
+
+        assertEquals(404, response.getStatusCode().value());
+        ApiErrorResponse body = response.getBody();
+        assertNotNull(body);
+        assertEquals(404, body.getStatus());
+        assertEquals("Not Found", body.getError());
+        assertEquals("Producto no encontrado: 1", body.getMessage());
+        assertEquals("/products/1", body.getPath());
+        assertNotNull(OffsetDateTime.parse(body.getTimestamp()));
+    }
+}
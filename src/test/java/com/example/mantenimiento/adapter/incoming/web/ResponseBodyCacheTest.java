@@ -0,0 +1,314 @@
+package com.example.mantenimiento.adapter.incoming.web;
+
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogEntityType;
+import com.example.mantenimiento.config.ReadWriteRoutingDataSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBodyCacheTest {
+
+    private final ResponseBodyCache cache = new ResponseBodyCache(
+        new ObjectMapper(),
+        new MappingJackson2CborHttpMessageConverter(),
+        new MappingJackson2SmileHttpMessageConverter(),
+        true, 100, 60_000, 64, 0, 1_000, true, 5_000
+    );
+
+    @Test
+    void respond_servesSerializedBytesWithoutCallingLoaderAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        ResponseEntity<byte[]> first = cache.respond(ResponseBodyCache.categoriesKey(), null, null, () -> {
+            loads.incrementAndGet();
+            return List.of(Map.of("name", "Electrónica"));
+        });
+        ResponseEntity<byte[]> second = cache.respond(ResponseBodyCache.categoriesKey(), null, null, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals("[{\"name\":\"Electrónica\"}]", new String(second.getBody(), StandardCharsets.UTF_8));
+        assertEquals(MediaType.APPLICATION_JSON, second.getHeaders().getContentType());
+        assertEquals(first.getBody().length, second.getHeaders().getContentLength());
+    }
+
+    @Test
+    void respond_servesPrecompressedGzipOnlyWhenAccepted() throws Exception {
+        List<Map<String, String>> products = Collections.nCopies(50, Map.of("name", "Mouse inalámbrico"));
+        String key = ResponseBodyCache.productsKey(false);
+
+        ResponseEntity<byte[]> plain = cache.respond(key, null, null, () -> products);
+        ResponseEntity<byte[]> gzipped = cache.respond(key, null, "br;q=1.0, gzip;q=0.8", () -> products);
+        ResponseEntity<byte[]> refused = cache.respond(key, null, "gzip;q=0", () -> products);
+
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzipped.getBody().length < plain.getBody().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertArrayEquals(plain.getBody(), in.readAllBytes());
+        }
+        assertNull(refused.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void respond_negotiatesBinaryFormatAndCachesEachVariant() throws Exception {
+        String key = ResponseBodyCache.categoriesKey();
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Object> loader = () -> {
+            loads.incrementAndGet();
+            return List.of(Map.of("name", "Electrónica"));
+        };
+
+        ResponseEntity<byte[]> json = cache.respond(key, "application/json", null, loader);
+        ResponseEntity<byte[]> cbor = cache.respond(key, "application/json;q=0.5, application/cbor", null, loader);
+        cache.respond(key, "application/cbor", null, loader);
+
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.getHeaders().getContentType());
+        assertEquals(2, loads.get());
+        List<?> decoded = new CBORMapper().readValue(cbor.getBody(), List.class);
+        assertEquals(new ObjectMapper().readValue(json.getBody(), List.class), decoded);
+    }
+
+    @Test
+    void negotiate_defaultsToJsonForWildcardsAndMissingAccept() {
+        assertEquals(MediaType.APPLICATION_JSON, cache.negotiate(null));
+        assertEquals(MediaType.APPLICATION_JSON, cache.negotiate("*/*"));
+        assertEquals(ResponseBodyCache.APPLICATION_SMILE, cache.negotiate("application/x-jackson-smile, */*;q=0.1"));
+    }
+
+    @Test
+    void respond_returnsNotFoundWithoutCachingWhenLoaderReturnsNull() {
+        UUID id = UUID.randomUUID();
+
+        ResponseEntity<byte[]> missing = cache.respond(ResponseBodyCache.productKey(id, false), null, null, () -> null);
+        ResponseEntity<byte[]> created = cache.respond(ResponseBodyCache.productKey(id, false), null, null, () -> Map.of("id", id.toString()));
+
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+        assertEquals(HttpStatus.OK, created.getStatusCode());
+    }
+
+    @Test
+    void evict_dropsProductAndCategoryDependentEntries() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        String plain = ResponseBodyCache.productKey(id, false);
+        String expanded = ResponseBodyCache.productKey(id, true);
+
+        cache.respond(plain, null, null, () -> Map.of("v", loads.incrementAndGet()));
+        cache.respond(expanded, null, null, () -> Map.of("v", loads.incrementAndGet()));
+        cache.evict(CatalogEntityType.CATEGORY, UUID.randomUUID());
+        cache.respond(plain, null, null, () -> Map.of("v", loads.incrementAndGet()));
+        cache.respond(expanded, null, null, () -> Map.of("v", loads.incrementAndGet()));
+        assertEquals(3, loads.get());
+
+        cache.evict(CatalogEntityType.PRODUCT, id);
+        cache.respond(plain, null, null, () -> Map.of("v", loads.incrementAndGet()));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void respond_doesNotCacheLoadThatOverlapsAnInvalidation() {
+        UUID id = UUID.randomUUID();
+        String key = ResponseBodyCache.productKey(id, false);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.respond(key, null, null, () -> {
+            loads.incrementAndGet();
+            cache.evict(CatalogEntityType.PRODUCT, id);
+            return Map.of("stale", true);
+        });
+        cache.respond(key, null, null, () -> Map.of("v", loads.incrementAndGet()));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void respond_readsFromPrimaryOnlyForLoadsRightAfterAnInvalidation() {
+        List<Boolean> primaryForced = new ArrayList<>();
+        Supplier<Object> loader = () -> {
+            primaryForced.add(ReadWriteRoutingDataSource.isPrimaryForced());
+            return List.of();
+        };
+
+        cache.respond(ResponseBodyCache.categoriesKey(), null, null, loader);
+        cache.evict(CatalogEntityType.CATEGORY, UUID.randomUUID());
+        cache.respond(ResponseBodyCache.categoriesKey(), null, null, loader);
+
+        assertEquals(List.of(false, true), primaryForced);
+        // La marca de la petición queda como estaba
+        assertFalse(ReadWriteRoutingDataSource.isPrimaryForced());
+    }
+
+    @Test
+    void respond_backgroundRefreshAfterInvalidationReadsFromPrimary() throws Exception {
+        ResponseBodyCache staleCache = new ResponseBodyCache(
+            new ObjectMapper(),
+            new MappingJackson2CborHttpMessageConverter(),
+            new MappingJackson2SmileHttpMessageConverter(),
+            true, 100, 1, 1024, 60_000, 1_000, true, 5_000
+        );
+        String key = ResponseBodyCache.categoriesKey();
+        staleCache.evict(CatalogEntityType.CATEGORY, UUID.randomUUID());
+        staleCache.respond(key, null, null, () -> List.of("nueva"));
+        Thread.sleep(5);
+        CountDownLatch refreshed = new CountDownLatch(1);
+        List<Boolean> primaryForced = Collections.synchronizedList(new ArrayList<>());
+
+        staleCache.respond(key, null, null, () -> {
+            primaryForced.add(ReadWriteRoutingDataSource.isPrimaryForced());
+            refreshed.countDown();
+            return List.of("nueva");
+        });
+
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(true), primaryForced);
+    }
+
+    @Test
+    void respond_servesExpiredEntryWhileSingleBackgroundRefreshRuns() throws Exception {
+        ResponseBodyCache staleCache = new ResponseBodyCache(
+            new ObjectMapper(),
+            new MappingJackson2CborHttpMessageConverter(),
+            new MappingJackson2SmileHttpMessageConverter(),
+            true, 100, 1, 1024, 60_000, 1_000, true, 5_000
+        );
+        String key = ResponseBodyCache.categoriesKey();
+        staleCache.respond(key, null, null, () -> List.of("antigua"));
+        Thread.sleep(5);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger refreshes = new AtomicInteger();
+        Supplier<Object> slowLoader = () -> {
+            refreshes.incrementAndGet();
+            awaitQuietly(release);
+            return List.of("nueva");
+        };
+
+        ResponseEntity<byte[]> first = staleCache.respond(key, null, null, slowLoader);
+        ResponseEntity<byte[]> second = staleCache.respond(key, null, null, slowLoader);
+        release.countDown();
+
+        assertEquals("[\"antigua\"]", new String(first.getBody(), StandardCharsets.UTF_8));
+        assertEquals("[\"antigua\"]", new String(second.getBody(), StandardCharsets.UTF_8));
+        String refreshed = "";
+        for (int i = 0; i < 200 && !refreshed.equals("[\"nueva\"]"); i++) {
+            Thread.sleep(5);
+            // TTL de 1 ms: la entrada renovada vuelve a estar caducada, pero se sirve desde la caché
+            refreshed = new String(staleCache.respond(key, null, null, () -> List.of("nueva")).getBody(), StandardCharsets.UTF_8);
+        }
+        assertEquals("[\"nueva\"]", refreshed);
+        assertEquals(1, refreshes.get());
+    }
+
+    @Test
+    void respond_doesNotServeStaleEntryAfterInvalidation() {
+        ResponseBodyCache staleCache = new ResponseBodyCache(
+            new ObjectMapper(),
+            new MappingJackson2CborHttpMessageConverter(),
+            new MappingJackson2SmileHttpMessageConverter(),
+            true, 100, 60_000, 1024, 60_000, 1_000, true, 5_000
+        );
+        String key = ResponseBodyCache.categoriesKey();
+        staleCache.respond(key, null, null, () -> List.of("antigua"));
+
+        staleCache.evict(CatalogEntityType.CATEGORY, UUID.randomUUID());
+        ResponseEntity<byte[]> response = staleCache.respond(key, null, null, () -> List.of("nueva"));
+
+        assertEquals("[\"nueva\"]", new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void respond_servesLastKnownGoodWithWarningWhenDatabaseIsDown() {
+        String key = ResponseBodyCache.categoriesKey();
+        cache.respond(key, null, null, () -> List.of("antigua"));
+        cache.evict(CatalogEntityType.CATEGORY, UUID.randomUUID());
+
+        ResponseEntity<byte[]> response = cache.respond(key, null, null, () -> {
+            throw new DataAccessResourceFailureException("sin conexión");
+        });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("[\"antigua\"]", new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals("110 - \"Response is Stale\"", response.getHeaders().getFirst(HttpHeaders.WARNING));
+        assertEquals("0", response.getHeaders().getFirst(HttpHeaders.AGE));
+    }
+
+    @Test
+    void respond_propagatesDatabaseErrorWithoutLastKnownGood() {
+        assertThrows(DataAccessResourceFailureException.class, () -> cache.respond(
+            ResponseBodyCache.productKey(UUID.randomUUID(), false), null, null, () -> {
+                throw new DataAccessResourceFailureException("sin conexión");
+            }));
+    }
+
+    @Test
+    void respond_whenFull_evictsLeastRecentlyUsedKeys() throws Exception {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String key = ResponseBodyCache.productKey(UUID.randomUUID(), false);
+            keys.add(key);
+            cache.respond(key, null, null, () -> Map.of("name", "Mouse"));
+        }
+        Thread.sleep(2);
+        AtomicInteger loads = new AtomicInteger();
+        cache.respond(keys.get(0), null, null, () -> Map.of("v", loads.incrementAndGet()));
+
+        cache.respond(ResponseBodyCache.categoriesKey(), null, null, () -> List.of("nueva"));
+        cache.respond(keys.get(0), null, null, () -> Map.of("v", loads.incrementAndGet()));
+
+        assertEquals(0, loads.get());
+        assertEquals(91, cache.size());
+        assertTrue(cache.lastKnownGoodSize() <= 100);
+    }
+
+    @Test
+    void respond_whenFull_dropsExpiredEntriesFirst() throws Exception {
+        ResponseBodyCache shortLived = new ResponseBodyCache(
+            new ObjectMapper(),
+            new MappingJackson2CborHttpMessageConverter(),
+            new MappingJackson2SmileHttpMessageConverter(),
+            true, 10, 1, 1024, 0, 1_000, true, 5_000
+        );
+        for (int i = 0; i < 10; i++) {
+            shortLived.respond(ResponseBodyCache.categoryKey(UUID.randomUUID()), null, null, () -> Map.of("name", "Periféricos"));
+        }
+        Thread.sleep(5);
+
+        shortLived.respond(ResponseBodyCache.categoriesKey(), null, null, () -> List.of("nueva"));
+
+        assertEquals(1, shortLived.size());
+        // Sin caducidad: se recorta por uso y nunca supera el máximo
+        assertEquals(10, shortLived.lastKnownGoodSize());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoundedLruMapTest {
+
+    @Test
+    void put_whenFull_dropsLeastRecentlyUsedTenPercent() {
+        BoundedLruMap<Integer, String> map = new BoundedLruMap<>(20, value -> Long.MAX_VALUE);
+        for (int i = 0; i < 20; i++) {
+            map.put(i, "v" + i, i);
+        }
+        map.get(0, 100);
+
+        map.put(20, "v20", 101);
+
+        assertEquals(19, map.size());
+        assertNotNull(map.get(0, 102));
+        assertNull(map.get(1, 102));
+        assertNull(map.get(2, 102));
+        assertNotNull(map.get(3, 102));
+    }
+
+    @Test
+    void put_whenFull_dropsExpiredEntriesFirst() {
+        BoundedLruMap<Integer, Long> map = new BoundedLruMap<>(4, expiresAt -> expiresAt);
+        map.put(1, 50L, 0);
+        map.put(2, 50L, 0);
+        map.put(3, 500L, 0);
+        map.put(4, 500L, 0);
+
+        map.put(5, 500L, 100);
+
+        assertEquals(3, map.size());
+        assertNull(map.get(1, 100));
+        assertNotNull(map.get(3, 100));
+    }
+
+    @Test
+    void put_existingKeyWhenFull_doesNotEvict() {
+        BoundedLruMap<Integer, String> map = new BoundedLruMap<>(2, value -> Long.MAX_VALUE);
+        map.put(1, "a", 0);
+        map.put(2, "b", 1);
+
+        map.put(1, "c", 2);
+
+        assertEquals(2, map.size());
+        assertEquals("c", map.get(1, 3));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ObjectProvider<CacheInvalidationListener> listeners;
+
+    @Mock
+    private CacheInvalidationListener listener;
+
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(listeners.iterator()).thenAnswer(invocation -> List.of(listener).iterator());
+        bus = new CacheInvalidationBus(jdbcTemplate, new DataSourceProperties(), listeners, true, "catalog_invalidation");
+    }
+
+    @Test
+    void handle_evictsEntryNotifiedByAnotherNode() {
+        UUID id = UUID.randomUUID();
+
+        bus.handle("otro-nodo:CATEGORY:" + id);
+
+        verify(listener).evict(CatalogEntityType.CATEGORY, id);
+    }
+
+    @Test
+    void handle_evictsWholeTypeOnWildcard() {
+        bus.handle("otro-nodo:PRODUCT:*");
+
+        verify(listener).evictAll(CatalogEntityType.PRODUCT);
+        verify(listener, never()).evict(any(), any());
+    }
+
+    @Test
+    void handle_ignoresMalformedPayload() {
+        bus.handle("otro-nodo:DESCONOCIDO:x");
+        bus.handle("basura");
+
+        verifyNoInteractions(listener);
+    }
+
+    @Test
+    void publish_dispatchesLocallyOnlyToListenersNotUpdatedByOwnWrites() {
+        UUID id = UUID.randomUUID();
+        CacheInvalidationListener responseCache = mock(CacheInvalidationListener.class);
+        when(responseCache.evictOnLocalWrites()).thenReturn(true);
+        when(listeners.iterator()).thenAnswer(invocation -> List.of(listener, responseCache).iterator());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.publish(CatalogEntityType.PRODUCT, id);
+            verify(responseCache, never()).evict(any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(responseCache).evict(CatalogEntityType.PRODUCT, id);
+        verify(listener, never()).evict(any(), any());
+    }
+
+    @Test
+    void publish_rejectsCallOutsideTransaction() {
+        assertThrows(IllegalStateException.class, () -> bus.publish(CatalogEntityType.PRODUCT, UUID.randomUUID()));
+
+        verifyNoInteractions(jdbcTemplate, listener);
+    }
+
+    @Test
+    void constructor_rejectsInvalidChannelName() {
+        assertThrows(IllegalStateException.class,
+            () -> new CacheInvalidationBus(jdbcTemplate, new DataSourceProperties(), listeners, true, "canal; drop table"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import com.example.mantenimiento.adapter.outgoing.persistence.CategoryRepository;
+import com.example.mantenimiento.adapter.outgoing.persistence.ProductRepository;
+import com.example.mantenimiento.domain.id.UuidV7;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogIdFilterTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogIdFilter idFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        idFilter = new CatalogIdFilter(productRepository, categoryRepository, meterRegistry, true, true, 10_000, 0.01, 600_000);
+    }
+
+    @Test
+    void mightContain_letsEverythingThroughUntilBuilt() {
+        assertTrue(idFilter.mightContain(CatalogEntityType.PRODUCT, UUID.randomUUID()));
+    }
+
+    @Test
+    void mightContain_rejectsUnknownIdsAfterRebuild() {
+        UUID existing = UUID.randomUUID();
+        when(productRepository.count()).thenReturn(1L);
+        when(productRepository.findAllIds()).thenReturn(List.of(existing));
+
+        idFilter.rebuild(CatalogEntityType.PRODUCT);
+
+        assertTrue(idFilter.mightContain(CatalogEntityType.PRODUCT, existing));
+        int rejected = 0;
+        for (int i = 0; i < 100; i++) {
+            if (!idFilter.mightContain(CatalogEntityType.PRODUCT, UUID.randomUUID())) {
+                rejected++;
+            }
+        }
+        assertTrue(rejected > 90);
+        assertEquals(rejected, lookups("product", "rejected"));
+    }
+
+    @Test
+    void evict_addsIdsWrittenAfterRebuild() {
+        when(categoryRepository.count()).thenReturn(0L);
+        when(categoryRepository.findAllIds()).thenReturn(List.of());
+        idFilter.rebuild(CatalogEntityType.CATEGORY);
+        UUID created = UUID.randomUUID();
+
+        idFilter.evict(CatalogEntityType.CATEGORY, created);
+
+        assertTrue(idFilter.mightContain(CatalogEntityType.CATEGORY, created));
+    }
+
+    @Test
+    void evictAll_letsEverythingThroughUntilNextRebuild() {
+        when(productRepository.count()).thenReturn(0L);
+        when(productRepository.findAllIds()).thenReturn(List.of());
+        idFilter.rebuild(CatalogEntityType.PRODUCT);
+        UUID missed = UUID.randomUUID();
+        assertFalse(idFilter.mightContain(CatalogEntityType.PRODUCT, missed));
+
+        idFilter.evictAll(CatalogEntityType.PRODUCT);
+
+        assertTrue(idFilter.mightContain(CatalogEntityType.PRODUCT, missed));
+    }
+
+    @Test
+    void mightContain_acceptsRecentUuidV7NotYetNotified() {
+        when(productRepository.count()).thenReturn(0L);
+        when(productRepository.findAllIds()).thenReturn(List.of());
+        idFilter.rebuild(CatalogEntityType.PRODUCT);
+
+        // Alta en otra instancia cuyo aviso aún no ha llegado
+        assertTrue(idFilter.mightContain(CatalogEntityType.PRODUCT, UuidV7.generate()));
+        assertFalse(idFilter.mightContain(CatalogEntityType.PRODUCT, uuidV7At(System.currentTimeMillis() - 60_000)));
+    }
+
+    @Test
+    void start_withoutInvalidationBus_letsEverythingThrough() {
+        CatalogIdFilter withoutBus = new CatalogIdFilter(
+            productRepository, categoryRepository, new SimpleMeterRegistry(), true, false, 10_000, 0.01, 600_000);
+
+        withoutBus.start();
+
+        assertFalse(withoutBus.isRunning());
+        assertTrue(withoutBus.mightContain(CatalogEntityType.PRODUCT, UUID.randomUUID()));
+    }
+
+    @Test
+    void recordFalsePositive_countsOnlyWhileFilterIsActive() {
+        idFilter.recordFalsePositive(CatalogEntityType.PRODUCT);
+        when(productRepository.count()).thenReturn(0L);
+        when(productRepository.findAllIds()).thenReturn(List.of());
+        idFilter.rebuild(CatalogEntityType.PRODUCT);
+
+        idFilter.recordFalsePositive(CatalogEntityType.PRODUCT);
+
+        assertEquals(1, lookups("product", "false_positive"));
+    }
+
+    private static UUID uuidV7At(long millis) {
+        return new UUID(millis << 16 | 0x7000L, 0x8000000000000000L);
+    }
+
+    private double lookups(String type, String result) {
+        return meterRegistry.get("catalog.id_filter.lookups").tag("type", type).tag("result", result).counter().count();
+    }
+}
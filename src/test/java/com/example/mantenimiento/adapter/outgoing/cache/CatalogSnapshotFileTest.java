@@ -0,0 +1,76 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import com.example.mantenimiento.domain.model.Category;
+import com.example.mantenimiento.domain.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private final Category audio = Category.builder().id(UUID.randomUUID()).name("Audio").build();
+    private final Product headphones = Product.builder()
+        .id(UUID.randomUUID()).name("Auriculares inalámbricos").description("Cancelación de ruido")
+        .price(new BigDecimal("59.90")).categoryId(audio.getId()).build();
+    private final Product speaker = Product.builder()
+        .id(UUID.randomUUID()).name("Altavoz").price(new BigDecimal("120")).categoryId(audio.getId()).build();
+    private final CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(audio), List.of(headphones, speaker));
+
+    @Test
+    void write_thenOpen_roundTripsCatalog() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+
+        CatalogSnapshotFile.write(file, snapshot, 1_700_000_000_000L);
+        CatalogSnapshotFile loaded = CatalogSnapshotFile.open(file);
+
+        assertEquals(1_700_000_000_000L, loaded.capturedAt());
+        assertEquals(snapshot.products(), loaded.toSnapshot().products());
+        assertEquals(List.of(audio), loaded.toSnapshot().categories());
+    }
+
+    @Test
+    void write_keepsCategoryIdMissingFromSnapshot() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        Product orphan = Product.builder()
+            .id(UUID.randomUUID()).name("Cable").price(new BigDecimal("4.50")).categoryId(UUID.randomUUID()).build();
+
+        CatalogSnapshotFile.write(file, CatalogSnapshot.of(List.of(audio), List.of(orphan)), 0);
+
+        assertEquals(orphan, CatalogSnapshotFile.open(file).product(0));
+    }
+
+    @Test
+    void open_rejectsCorruptedBody() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(file, snapshot, 0);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[CatalogSnapshotFile.HEADER_BYTES] ^= 1;
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.open(file));
+    }
+
+    @Test
+    void open_rejectsOtherFormatVersion() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(file, snapshot, 0);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(4, CatalogSnapshotFile.FORMAT_VERSION + 1);
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.open(file));
+    }
+}
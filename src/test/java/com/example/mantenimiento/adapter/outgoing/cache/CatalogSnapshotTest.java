@@ -0,0 +1,106 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import com.example.mantenimiento.domain.model.Category;
+import com.example.mantenimiento.domain.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotTest {
+
+    private final Category audio = Category.builder().id(UUID.randomUUID()).name("Audio").build();
+    private final Category video = Category.builder().id(UUID.randomUUID()).name("Vídeo").build();
+    private final Product headphones = product("Auriculares", "59.90", audio);
+    private final Product speaker = product("Altavoz", "120.00", audio);
+    private final Product monitor = product("Monitor", "199.90", video);
+
+    private final CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(audio, video), List.of(headphones, speaker, monitor));
+
+    @Test
+    void indexesProductsByIdCategoryAndPrice() {
+        assertEquals(Optional.of(speaker), snapshot.product(speaker.getId()));
+        assertEquals(2, snapshot.productsInCategory(audio.getId()).size());
+        assertTrue(snapshot.productsInCategory(audio.getId()).containsAll(List.of(headphones, speaker)));
+        assertEquals(List.of(speaker, monitor), snapshot.productsByPrice(new BigDecimal("100"), new BigDecimal("199.90")));
+        assertEquals(Optional.of(video), snapshot.category(video.getId()));
+    }
+
+    @Test
+    void withProduct_reindexesChangedProductAndLeavesPreviousSnapshotIntact() {
+        Product moved = speaker.withUpdatedData("Altavoz", null, new BigDecimal("80.00"), video.getId());
+
+        CatalogSnapshot next = snapshot.withProduct(moved);
+
+        assertEquals(List.of(headphones), next.productsInCategory(audio.getId()));
+        assertEquals(List.of(headphones, moved), next.productsByPrice(BigDecimal.ONE, new BigDecimal("100")));
+        assertEquals(3, next.productCount());
+        assertEquals(new BigDecimal("120.00"), snapshot.product(speaker.getId()).orElseThrow().getPrice());
+        assertEquals(2, snapshot.productsInCategory(audio.getId()).size());
+    }
+
+    @Test
+    void of_acceptsProductsWithoutCategory() {
+        // Product.builder() exige categoría; la columna no
+        Product cable = mock(Product.class);
+        when(cable.getId()).thenReturn(UUID.randomUUID());
+        when(cable.getPrice()).thenReturn(new BigDecimal("4.50"));
+
+        CatalogSnapshot withUncategorized = snapshot.withProduct(cable);
+
+        assertEquals(Optional.of(cable), CatalogSnapshot.of(List.of(audio), List.of(cable, speaker)).product(cable.getId()));
+        assertEquals(List.of(cable), withUncategorized.productsInCategory(null));
+        assertEquals(2, withUncategorized.productsInCategory(audio.getId()).size());
+        assertEquals(3, withUncategorized.withoutProduct(cable.getId()).productCount());
+    }
+
+    @Test
+    void withoutCategory_dropsItsProducts() {
+        CatalogSnapshot next = snapshot.withoutCategory(audio.getId());
+
+        assertEquals(List.of(monitor), next.products());
+        assertFalse(next.category(audio.getId()).isPresent());
+        assertEquals(List.of(monitor), next.productsByPrice(BigDecimal.ZERO, new BigDecimal("1000")));
+    }
+
+    @Test
+    void withProductsMoved_reassignsCategory() {
+        CatalogSnapshot next = snapshot.withProductsMoved(audio.getId(), video.getId());
+
+        assertTrue(next.productsInCategory(audio.getId()).isEmpty());
+        assertEquals(3, next.productsInCategory(video.getId()).size());
+    }
+
+    @Test
+    void withProduct_sharesUntouchedChunks() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ChunkedSortedList.MAX_CHUNK * 4; i++) {
+            products.add(product("Producto " + i, "10", audio));
+        }
+        CatalogSnapshot large = CatalogSnapshot.of(List.of(audio), products);
+        Product last = large.products().get(products.size() - 1);
+
+        CatalogSnapshot next = large.withProduct(last.withUpdatedData("Renombrado", null, last.getPrice(), audio.getId()));
+
+        assertTrue(next.sharesProductChunk(large, 0));
+        assertFalse(next.sharesProductChunk(large, 3));
+    }
+
+    private static Product product(String name, String price, Category category) {
+        return Product.builder()
+            .id(UUID.randomUUID())
+            .name(name)
+            .price(new BigDecimal(price))
+            .categoryId(category.getId())
+            .build();
+    }
+}
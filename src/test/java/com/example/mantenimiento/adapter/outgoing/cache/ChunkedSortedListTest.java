@@ -0,0 +1,64 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedSortedListTest {
+
+    private static final Comparator<Integer> ORDER = Comparator.naturalOrder();
+
+    @Test
+    void with_andWithout_matchSortedSetAcrossChunkSplits() {
+        Random random = new Random(42);
+        TreeSet<Integer> expected = new TreeSet<>();
+        ChunkedSortedList<Integer> list = ChunkedSortedList.of(List.of(), ORDER);
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(3_000);
+            if (random.nextInt(4) == 0) {
+                expected.remove(value);
+                list = list.without(element -> element.compareTo(value));
+            } else {
+                expected.add(value);
+                list = list.with(value);
+            }
+        }
+
+        assertEquals(new ArrayList<>(expected), list.toList());
+        assertEquals(expected.size(), list.size());
+        assertTrue(list.chunkCount() > 1);
+    }
+
+    @Test
+    void without_copiesOnlyTheTouchedChunk() {
+        List<Integer> values = IntStream.range(0, ChunkedSortedList.MAX_CHUNK * 4).boxed().collect(Collectors.toList());
+        ChunkedSortedList<Integer> before = ChunkedSortedList.of(values, ORDER);
+
+        ChunkedSortedList<Integer> after = before.without(element -> element.compareTo(0));
+
+        assertFalse(after.sharesChunk(before, 0));
+        assertTrue(after.sharesChunk(before, 1));
+        assertTrue(after.sharesChunk(before, 3));
+        assertEquals(Integer.valueOf(0), before.find(element -> element.compareTo(0)));
+        assertNull(after.find(element -> element.compareTo(0)));
+    }
+
+    @Test
+    void range_startsAtFirstElementNotBelowKey() {
+        ChunkedSortedList<Integer> list = ChunkedSortedList.of(List.of(1, 3, 5, 7, 9), ORDER);
+
+        assertEquals(List.of(5, 7), list.range(element -> element < 4 ? -1 : 1, element -> element <= 7));
+        assertEquals(List.of(), list.range(element -> element < 10 ? -1 : 1, element -> true));
+    }
+}
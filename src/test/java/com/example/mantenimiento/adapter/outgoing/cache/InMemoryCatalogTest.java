@@ -0,0 +1,196 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import com.example.mantenimiento.adapter.outgoing.persistence.CatalogChange;
+import com.example.mantenimiento.adapter.outgoing.persistence.CatalogChangeRepository;
+import com.example.mantenimiento.adapter.outgoing.persistence.CategoryRepository;
+import com.example.mantenimiento.adapter.outgoing.persistence.ProductRepository;
+import com.example.mantenimiento.adapter.outgoing.persistence.entity.CategoryEntity;
+import com.example.mantenimiento.adapter.outgoing.persistence.entity.ProductEntity;
+import com.example.mantenimiento.adapter.outgoing.persistence.mapper.CategoryEntityMapper;
+import com.example.mantenimiento.adapter.outgoing.persistence.mapper.ProductEntityMapper;
+import com.example.mantenimiento.domain.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryCatalogTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CatalogChangeRepository changeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID categoryId = UUID.randomUUID();
+    private final ProductEntity mouse = new ProductEntity(UUID.randomUUID(), "Mouse", null, BigDecimal.valueOf(19.9), categoryId);
+
+    @TempDir
+    Path directory;
+
+    private InMemoryCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new InMemoryCatalog(
+            productRepository,
+            categoryRepository,
+            changeRepository,
+            new ProductEntityMapper(),
+            new CategoryEntityMapper(),
+            transactionManager,
+            meterRegistry,
+            true,
+            10_000,
+            directory.resolve("catalog.snapshot").toString(),
+            300_000
+        );
+        when(categoryRepository.findAll()).thenReturn(List.of(new CategoryEntity(categoryId, "Periféricos")));
+        when(productRepository.findAll()).thenReturn(List.of(mouse));
+        catalog.reloadAll();
+    }
+
+    @Test
+    void reloadAll_publishesSnapshotAndGauge() {
+        assertEquals(1, catalog.current().productCount());
+        assertEquals(1, meterRegistry.get("catalog.in_memory.products").gauge().value());
+    }
+
+    @Test
+    void publishAfterCommit_swapsSnapshotAndKeepsPreviousOne() {
+        CatalogSnapshot before = catalog.current();
+        Product keyboard = Product.builder().id(UUID.randomUUID()).name("Teclado").price(BigDecimal.TEN).categoryId(categoryId).build();
+
+        catalog.publishAfterCommit(snapshot -> snapshot.withProduct(keyboard));
+
+        assertEquals(2, catalog.current().productCount());
+        assertEquals(1, before.productCount());
+    }
+
+    @Test
+    void reloadAll_readsOutsideTheLockAndKeepsLocalWritesMadeMeanwhile() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findAll()).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(mouse);
+        });
+        Product keyboard = Product.builder().id(UUID.randomUUID()).name("Teclado").price(BigDecimal.TEN).categoryId(categoryId).build();
+        Thread reload = new Thread(catalog::reloadAll);
+        reload.start();
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        // La escritura local no espera a la consulta de la recarga
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> catalog.publishAfterCommit(current -> current.withProduct(keyboard)));
+        release.countDown();
+        reload.join(5_000);
+
+        // La carga no la veía, pero se repite sobre la copia nueva
+        assertTrue(catalog.current().product(keyboard.getId()).isPresent());
+        assertEquals(2, catalog.current().productCount());
+    }
+
+    @Test
+    void reload_removesProductDeletedOnAnotherInstance() {
+        when(productRepository.findAllById(Set.of(mouse.getId()))).thenReturn(List.of());
+
+        catalog.reload(CatalogEntityType.PRODUCT, mouse.getId());
+
+        assertTrue(catalog.current().product(mouse.getId()).isEmpty());
+    }
+
+    @Test
+    void current_isNullWhenDisabled() {
+        InMemoryCatalog disabled = new InMemoryCatalog(
+            productRepository, categoryRepository, changeRepository, new ProductEntityMapper(), new CategoryEntityMapper(),
+            transactionManager, new SimpleMeterRegistry(), false, 10_000, "", 300_000
+        );
+        disabled.start();
+
+        assertNull(disabled.current());
+    }
+
+    @Test
+    void writeSnapshotFile_letsAnotherInstanceStartFromTheDump() {
+        catalog.writeSnapshotFile();
+        InMemoryCatalog restarted = new InMemoryCatalog(
+            productRepository, categoryRepository, changeRepository, new ProductEntityMapper(), new CategoryEntityMapper(),
+            transactionManager, new SimpleMeterRegistry(), true, 10_000,
+            directory.resolve("catalog.snapshot").toString(), 300_000
+        );
+
+        assertTrue(restarted.loadSnapshotFile());
+        assertEquals("Mouse", restarted.current().product(mouse.getId()).orElseThrow().getName());
+        assertEquals(1, restarted.current().categories().size());
+    }
+
+    @Test
+    void loadSnapshotFile_ignoresCorruptDump() throws Exception {
+        catalog.writeSnapshotFile();
+        Path file = directory.resolve("catalog.snapshot");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        assertFalse(catalog.loadSnapshotFile());
+        assertEquals(1, catalog.current().productCount());
+    }
+
+    @Test
+    void catchUp_appliesChangesMadeAfterTheDump() {
+        catalog.writeSnapshotFile();
+        InMemoryCatalog restarted = new InMemoryCatalog(
+            productRepository, categoryRepository, changeRepository, new ProductEntityMapper(), new CategoryEntityMapper(),
+            transactionManager, new SimpleMeterRegistry(), true, 10_000,
+            directory.resolve("catalog.snapshot").toString(), 300_000
+        );
+        restarted.loadSnapshotFile();
+        Product keyboard = Product.builder().id(UUID.randomUUID()).name("Teclado").price(BigDecimal.TEN).categoryId(categoryId).build();
+        Instant now = Instant.now();
+        when(changeRepository.isRetained(any(), any())).thenReturn(true);
+        when(changeRepository.horizon(any())).thenReturn(now);
+        when(changeRepository.findCategoryChanges(any(), any(), any(), anyInt())).thenReturn(List.of());
+        when(changeRepository.findProductChanges(any(), any(), any(), anyInt())).thenReturn(List.of(
+            new CatalogChange<>(mouse.getId(), now, null),
+            new CatalogChange<>(keyboard.getId(), now, keyboard)
+        ));
+
+        restarted.catchUp();
+
+        assertTrue(restarted.current().product(mouse.getId()).isEmpty());
+        assertEquals("Teclado", restarted.current().product(keyboard.getId()).orElseThrow().getName());
+    }
+}
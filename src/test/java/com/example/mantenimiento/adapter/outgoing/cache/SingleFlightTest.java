@@ -0,0 +1,151 @@
+package com.example.mantenimiento.adapter.outgoing.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void load_concurrentMissesShareOneCall() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(2_000);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> loader = () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "producto";
+        };
+
+        Future<String> leader = executor.submit(() -> flight.load("product:1", loader));
+        started.await(1, TimeUnit.SECONDS);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> flight.load("product:1", loader)));
+        }
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("producto", leader.get(1, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("producto", follower.get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void load_propagatesLoaderFailureToWaitingCallers() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(2_000);
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("sin conexión");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flight.load("categories", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        started.await(1, TimeUnit.SECONDS);
+        Future<String> follower = executor.submit(() -> flight.load("categories", () -> "no se usa"));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(1, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> follower.get(1, TimeUnit.SECONDS)).getCause());
+        // Tras el fallo la siguiente petición vuelve a intentarlo
+        assertEquals("ok", flight.load("categories", () -> "ok"));
+    }
+
+    @Test
+    void load_timesOutWaitingForSlowCall() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(20);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> flight.load("product:1", () -> {
+            started.countDown();
+            await(release);
+            return "tarde";
+        }));
+        started.await(1, TimeUnit.SECONDS);
+
+        try {
+            assertThrows(QueryTimeoutException.class, () -> flight.load("product:1", () -> "no se usa"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void refresh_runsOnceWhileInFlight() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(2_000);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> refreshed = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        boolean first = flight.refresh("categories", () -> {
+            await(release);
+            return "nueva";
+        }, value -> {
+            refreshed.set(value);
+            done.countDown();
+        }, executor);
+        boolean second = flight.refresh("categories", () -> "duplicada", refreshed::set, executor);
+        release.countDown();
+
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals("nueva", refreshed.get());
+    }
+
+    @Test
+    void refresh_runsInlineWhenExecutorRejects() {
+        SingleFlight<String, String> flight = new SingleFlight<>(2_000);
+        AtomicReference<String> refreshed = new AtomicReference<>();
+
+        boolean started = flight.refresh("categories", () -> "nueva", refreshed::set, task -> {
+            throw new RejectedExecutionException();
+        });
+
+        assertTrue(started);
+        assertEquals("nueva", refreshed.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
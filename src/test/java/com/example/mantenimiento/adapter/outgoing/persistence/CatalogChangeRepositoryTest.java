@@ -0,0 +1,165 @@
+package com.example.mantenimiento.adapter.outgoing.persistence;
+
+import com.example.mantenimiento.domain.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * El SQL del feed (comparación de filas, UNION con las lápidas, triggers de V4) es específico de PostgreSQL:
+ * se prueba contra un contenedor con las migraciones de Flyway. Sin Docker los tests se saltan.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CatalogChangeRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogChangeRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private CatalogChangeRepository changeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID categoryId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (?, ?)", categoryId, "Periféricos");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE products, categories, catalog_tombstones");
+    }
+
+    @Test
+    void deletedProduct_isReportedAsTombstone() {
+        UUID mouse = insertProduct("Mouse");
+        UUID keyboard = insertProduct("Teclado");
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", mouse);
+
+        List<CatalogChange<Product>> changes = changeRepository.findProductChanges(
+            Instant.EPOCH, new UUID(0, 0), changeRepository.horizon(Duration.ZERO), 10
+        );
+
+        assertEquals(2, changes.size());
+        CatalogChange<Product> kept = changes.get(0);
+        CatalogChange<Product> deleted = changes.get(1);
+        assertEquals(keyboard, kept.getId());
+        assertEquals("Teclado", kept.getValue().getName());
+        assertEquals(categoryId, kept.getValue().getCategoryId());
+        assertEquals(mouse, deleted.getId());
+        assertTrue(deleted.isDeleted());
+        assertTrue(deleted.getChangedAt().isAfter(kept.getChangedAt()));
+    }
+
+    @Test
+    void pagesAcrossEqualTimestamps_withoutGapsOrRepeats() {
+        Instant changedAt = Instant.now().minus(1, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MICROS);
+        List<UUID> products = Stream.generate(() -> insertProduct("Producto")).limit(5).collect(Collectors.toList());
+        List<UUID> tombstones = List.of(UUID.randomUUID(), UUID.randomUUID());
+        // Mismo updated_at en todas las filas: el trigger lo sobrescribiría, se desactiva para preparar el caso
+        jdbcTemplate.execute("ALTER TABLE products DISABLE TRIGGER products_touch");
+        try {
+            jdbcTemplate.update("UPDATE products SET updated_at = ?", timestamp(changedAt));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE products ENABLE TRIGGER products_touch");
+        }
+        for (UUID id : tombstones) {
+            jdbcTemplate.update("INSERT INTO catalog_tombstones (entity_type, id, deleted_at) VALUES ('PRODUCT', ?, ?)",
+                id, timestamp(changedAt));
+        }
+
+        Instant until = changeRepository.horizon(Duration.ZERO);
+        List<UUID> delivered = new ArrayList<>();
+        Instant after = Instant.EPOCH;
+        UUID afterId = new UUID(0, 0);
+        List<CatalogChange<Product>> page;
+        do {
+            page = changeRepository.findProductChanges(after, afterId, until, 2);
+            for (CatalogChange<Product> change : page) {
+                assertEquals(changedAt, change.getChangedAt());
+                delivered.add(change.getId());
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getChangedAt();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 2);
+
+        // PostgreSQL compara uuid byte a byte sin signo, como su texto hexadecimal (UUID.compareTo usa signo)
+        List<UUID> expected = Stream.concat(products.stream(), tombstones.stream())
+            .sorted(Comparator.comparing(UUID::toString))
+            .collect(Collectors.toList());
+        assertEquals(expected, delivered);
+    }
+
+    @Test
+    void pruneTombstones_removesOnlyThoseOlderThanRetentionByTheDatabaseClock() {
+        UUID old = UUID.randomUUID();
+        UUID recent = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO catalog_tombstones (entity_type, id, deleted_at) "
+            + "VALUES ('PRODUCT', ?, clock_timestamp() - interval '31 days'), ('PRODUCT', ?, clock_timestamp())", old, recent);
+
+        assertEquals(1, changeRepository.pruneTombstones());
+
+        Instant databaseNow = changeRepository.horizon(Duration.ZERO);
+        assertTrue(changeRepository.isRetained(databaseNow.minus(29, ChronoUnit.DAYS), databaseNow));
+        assertFalse(changeRepository.isRetained(databaseNow.minus(31, ChronoUnit.DAYS), databaseNow));
+    }
+
+    private UUID insertProduct(String name) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO products (id, name, description, price, category_id) VALUES (?, ?, ?, ?, ?)",
+            id, name, null, BigDecimal.TEN, categoryId);
+        return id;
+    }
+
+    private static OffsetDateTime timestamp(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
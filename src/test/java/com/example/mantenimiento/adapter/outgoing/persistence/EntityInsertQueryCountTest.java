@@ -0,0 +1,98 @@
+package com.example.mantenimiento.adapter.outgoing.persistence;
+
+import com.example.mantenimiento.adapter.outgoing.persistence.entity.CategoryEntity;
+import com.example.mantenimiento.adapter.outgoing.persistence.entity.ProductEntity;
+import com.example.mantenimiento.adapter.outgoing.persistence.entity.UserEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Un alta con id asignado debe ser un único INSERT, sin el SELECT previo que provoca merge().
+ * Se ejecuta sobre H2 con el esquema generado por Hibernate; las migraciones son específicas de PostgreSQL.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class EntityInsertQueryCountTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveNewProduct_issuesSingleInsert() {
+        productRepository.saveAndFlush(
+            new ProductEntity(UUID.randomUUID(), "Mouse", "Inalámbrico", BigDecimal.valueOf(19.9), UUID.randomUUID()).markNew()
+        );
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    void saveNewCategory_issuesSingleInsert() {
+        categoryRepository.saveAndFlush(new CategoryEntity(UUID.randomUUID(), "Electrónica").markNew());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    void saveNewUser_issuesSingleInsert() {
+        userRepository.saveAndFlush(new UserEntity(UUID.randomUUID(), "ana", "hashed", "ROLE_USER").markNew());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    void saveNewProductWithoutId_generatesUuidV7() {
+        ProductEntity saved = productRepository.saveAndFlush(
+            new ProductEntity(null, "Monitor", "27 pulgadas", BigDecimal.valueOf(199.9), UUID.randomUUID())
+        );
+
+        assertEquals(7, saved.getId().version());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    void saveEntityNotMarkedNew_mergesWithSelectFirst() {
+        // Comportamiento previo (y el de las actualizaciones): merge consulta antes de insertar
+        productRepository.saveAndFlush(
+            new ProductEntity(UUID.randomUUID(), "Teclado", "Mecánico", BigDecimal.valueOf(49.9), UUID.randomUUID())
+        );
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+}
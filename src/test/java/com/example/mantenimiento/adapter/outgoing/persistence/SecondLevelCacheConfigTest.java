@@ -0,0 +1,59 @@
+package com.example.mantenimiento.adapter.outgoing.persistence;
+
+import com.example.mantenimiento.adapter.outgoing.persistence.entity.CategoryEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Arranca el contexto JPA con la configuración real de application.yml: una URI de ehcache.xml que
+ * el proveedor JCache no sepa resolver impide crear la SessionFactory.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void categoryRegion_isLoadedFromEhcacheXml() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        assertTrue(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled());
+        assertNotNull(sessionFactory.getStatistics().getDomainDataRegionStatistics(CategoryEntity.CACHE_REGION));
+    }
+
+    // La región se rellena al confirmar: sin la transacción del test, cada llamada al repositorio confirma la suya
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void findCategory_afterCommit_isServedFromSecondLevelCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        UUID id = UUID.randomUUID();
+        categoryRepository.save(new CategoryEntity(id, "Periféricos").markNew());
+        statistics.clear();
+
+        categoryRepository.findById(id);
+
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.mantenimiento.adapter.outgoing.persistence;
+
+import com.example.mantenimiento.adapter.outgoing.persistence.entity.UserEntity;
+import com.example.mantenimiento.adapter.outgoing.persistence.mapper.UserEntityMapper;
+import com.example.mantenimiento.domain.exception.DuplicateResourceException;
+import com.example.mantenimiento.domain.model.User;
+import com.example.mantenimiento.usecase.impl.UserUseCaseImpl;
+import com.example.mantenimiento.usecase.model.UserRegistrationOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * El alta de usuarios confía en el índice único sobre lower(username) en lugar de consultar antes.
+ * H2 no admite índices sobre expresiones: el índice se crea sobre una columna generada con el mismo nombre
+ * que en la migración V2. Sin transacción de test: cada alta confirma por su cuenta, como en producción.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(UserEntityMapper.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UsernameUniqueIndexTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserEntityMapper userEntityMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createUniqueIndex() {
+        jdbcTemplate.execute("ALTER TABLE users ADD COLUMN IF NOT EXISTS username_lower VARCHAR(255) "
+            + "GENERATED ALWAYS AS (LOWER(username))");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + UserEntity.USERNAME_UNIQUE_INDEX
+            + " ON users (username_lower)");
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void duplicateUsername_isReportedAsUniqueViolationOfTheIndex() {
+        userRepository.saveAndFlush(new UserEntity(UUID.randomUUID(), "ana", "hashed", "ROLE_USER").markNew());
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class, () ->
+            userRepository.saveAndFlush(new UserEntity(UUID.randomUUID(), "ANA", "hashed", "ROLE_USER").markNew())
+        );
+
+        assertTrue(PersistenceErrors.isUniqueViolation(e, UserEntity.USERNAME_CONSTRAINTS));
+        assertEquals("23505", sqlState(e));
+    }
+
+    @Test
+    void register_sameUsernameFrom32Threads_createsExactlyOneUser() throws Exception {
+        int threads = 32;
+        UserUseCaseImpl userUseCase = new UserUseCaseImpl(
+            userRepository, new BCryptPasswordEncoder(4), userEntityMapper, ForkJoinPool.commonPool()
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String username = i % 2 == 0 ? "newuser" : "NewUser";
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        userUseCase.register(User.builder().id(UUID.randomUUID()).username(username).password("plain12").build());
+                        created.incrementAndGet();
+                    } catch (DuplicateResourceException e) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, created.get());
+        assertEquals(threads - 1, conflicts.get());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void registerAll_nameTakenAfterThePreCheck_isReportedAsDuplicateAndTheRestAreCreated() {
+        UserRepository racingRepository = mock(UserRepository.class, AdditionalAnswers.delegatesTo(userRepository));
+        AtomicInteger checks = new AtomicInteger();
+        doAnswer(invocation -> {
+            List<String> existing = userRepository.findExistingUsernames(invocation.getArgument(0));
+            if (checks.incrementAndGet() == 1) {
+                // Otro alta confirma "ana" justo después de la comprobación previa del lote
+                userRepository.saveAndFlush(new UserEntity(UUID.randomUUID(), "ANA", "hashed", "ROLE_USER").markNew());
+            }
+            return existing;
+        }).when(racingRepository).findExistingUsernames(anyCollection());
+        UserUseCaseImpl userUseCase = new UserUseCaseImpl(
+            racingRepository, new BCryptPasswordEncoder(4), userEntityMapper, ForkJoinPool.commonPool()
+        );
+
+        List<UserRegistrationOutcome> outcomes = userUseCase.registerAll(List.of(
+            User.builder().username("ana").password("plain12").build(),
+            User.builder().username("luis").password("plain12").build()
+        ));
+
+        assertEquals(UserRegistrationOutcome.Status.DUPLICATE, outcomes.get(0).getStatus());
+        assertEquals(UserRegistrationOutcome.Status.CREATED, outcomes.get(1).getStatus());
+        assertEquals(2, checks.get());
+        assertEquals(2, userRepository.count());
+        assertTrue(userRepository.findByUsername("luis").isPresent());
+    }
+
+    private static String sqlState(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.mantenimiento.config;
+
+import com.example.mantenimiento.adapter.incoming.dto.ApiErrorResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CircuitBreakingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Se abre con 4 llamadas y la mitad fallidas
+    private final DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(registry, 10, 4, 0.5, 0.5, 1_000, 5_000, 2);
+    private CircuitBreakingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new CircuitBreakingDataSource(target, breaker);
+    }
+
+    @Test
+    void statementTimeouts_openTheCircuit() throws SQLException {
+        when(statement.executeQuery()).thenThrow(new SQLException("canceling statement due to statement timeout", "57014"));
+        Connection monitored = monitoredConnection();
+
+        PreparedStatement query = monitored.prepareStatement("SELECT 1");
+        assertThrows(SQLException.class, query::executeQuery);
+        assertThrows(SQLException.class, query::executeQuery);
+        assertThrows(SQLException.class, query::executeQuery);
+
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.state());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    }
+
+    @Test
+    void openCircuit_answers503WithRetryAfterUntilTheNextProbe() throws SQLException {
+        when(statement.executeQuery()).thenThrow(new SQLException("canceling statement due to statement timeout", "57014"));
+        PreparedStatement query = monitoredConnection().prepareStatement("SELECT 1");
+        for (int i = 0; i < 3; i++) {
+            assertThrows(SQLException.class, query::executeQuery);
+        }
+
+        CircuitOpenException open = assertThrows(CircuitOpenException.class, dataSource::getConnection);
+        ResponseEntity<ApiErrorResponse> response = new GlobalExceptionHandler().handleDatabaseUnavailable(
+            new DataAccessResourceFailureException("Sin conexión", open), new MockHttpServletRequest("POST", "/api/products")
+        );
+
+        assertTrue(open.retryAfterMs() > 4_000 && open.retryAfterMs() <= 5_000);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, GlobalExceptionHandler.retryAfterSeconds(new CircuitOpenException(1)));
+        assertEquals(1, GlobalExceptionHandler.retryAfterSeconds(new SQLTransientConnectionException("pool agotado")));
+    }
+
+    @Test
+    void applicationErrors_doNotCountAsFailures() throws SQLException {
+        when(statement.executeUpdate()).thenThrow(new SQLException("duplicate key value", "23505"));
+        Connection monitored = monitoredConnection();
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(SQLException.class, () -> monitored.prepareStatement("SELECT 1").executeUpdate());
+        }
+
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0, registry.get("db.circuit.calls").tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void successfulStatements_areRecordedWithTheirLatency() throws SQLException {
+        when(statement.execute()).thenReturn(true);
+        Connection monitored = monitoredConnection();
+
+        assertTrue(monitored.prepareStatement("SELECT 1").execute());
+
+        // La conexión y la sentencia
+        assertEquals(2, registry.get("db.circuit.calls").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void isDatabaseFailure_classifiesBySqlState() {
+        assertTrue(CircuitBreakingDataSource.isDatabaseFailure(new SQLException("conexión rechazada", "08001")));
+        assertTrue(CircuitBreakingDataSource.isDatabaseFailure(new SQLException("too many connections", "53300")));
+        assertTrue(CircuitBreakingDataSource.isDatabaseFailure(new SQLException("admin shutdown", "57P01")));
+        assertFalse(CircuitBreakingDataSource.isDatabaseFailure(new SQLException("violates foreign key", "23503")));
+        assertFalse(CircuitBreakingDataSource.isDatabaseFailure(new SQLException("sin estado")));
+    }
+
+    private Connection monitoredConnection() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT 1")).thenReturn(statement);
+        return dataSource.getConnection();
+    }
+}
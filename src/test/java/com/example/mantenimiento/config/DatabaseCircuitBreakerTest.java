@@ -0,0 +1,84 @@
+package com.example.mantenimiento.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseCircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(
+        registry, 10, 4, 0.5, 0.5, 100, 5_000, 2, now::get
+    );
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+        breaker.onFailure();
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.state());
+
+        breaker.onFailure();
+
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(5_000, breaker.retryAfterMs());
+        assertEquals(1, registry.get("db.circuit.state").gauge().value());
+        assertEquals(1, registry.get("db.circuit.calls").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void opensWhenConnectionsAreSlow() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess(i % 2 == 0 ? SLOW : FAST);
+        }
+
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void closesAfterSuccessfulHalfOpenProbes() {
+        tripOpen();
+        now.addAndGet(5_000);
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(DatabaseCircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void reopensWhenHalfOpenProbeFails() {
+        tripOpen();
+        now.addAndGet(5_000);
+        assertTrue(breaker.tryAcquirePermission());
+
+        breaker.onFailure();
+
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    private void tripOpen() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.state());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.mantenimiento.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class JwtAuthFilterTest {
+
+    private static final JwtKeyMaterial KEY = JwtKeyMaterial.hmac("changeitsecretkeymustbereplacedminimum32byteslong");
+
+    private final JwtUtil jwtUtil = spy(new JwtUtil(KEY, 60_000));
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validToken_isVerifiedOnceAndGetsItsOwnAuthenticationPerRequest() throws Exception {
+        JwtAuthFilter filter = new JwtAuthFilter(jwtUtil, 100, now::get);
+        String token = jwtUtil.generateToken("admin", "ROLE_ADMIN");
+
+        Authentication first = filterWith(filter, token, 200);
+        Authentication second = filterWith(filter, token, 200);
+
+        verify(jwtUtil, times(1)).parseClaims(any());
+        assertNotSame(first, second);
+        assertEquals("admin", second.getName());
+        assertEquals("ROLE_ADMIN", second.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void cachedToken_isRejectedAndEvictedOnceExpired() throws Exception {
+        JwtAuthFilter filter = new JwtAuthFilter(jwtUtil, 2, now::get);
+        String token = jwtUtil.generateToken("admin", "ROLE_ADMIN");
+        filterWith(filter, token, 200);
+
+        now.addAndGet(120_000);
+        assertNull(filterWith(filter, token, 401));
+
+        filterWith(filter, jwtUtil.generateToken("a", "ROLE_USER"), 401);
+        filterWith(filter, jwtUtil.generateToken("b", "ROLE_USER"), 401);
+        assertTrue(filter.cachedTokens() <= 2);
+    }
+
+    @Test
+    void expiredOrMalformedToken_isRejectedWithoutVerifyingTheSignature() throws Exception {
+        JwtAuthFilter filter = new JwtAuthFilter(jwtUtil, 100, now::get);
+        String expired = new JwtUtil(KEY, -60_000).generateToken("admin", "ROLE_ADMIN");
+
+        assertNull(filterWith(filter, expired, 401));
+        assertNull(filterWith(filter, "no.es un.token", 401));
+        assertNull(filterWith(filter, "sin-puntos", 401));
+
+        verify(jwtUtil, never()).parseClaims(any());
+    }
+
+    @Test
+    void tokenWithBadSignature_isRejectedAndRememberedAsRejected() throws Exception {
+        JwtAuthFilter filter = new JwtAuthFilter(jwtUtil, 100, now::get);
+        JwtUtil foreign = new JwtUtil(JwtKeyMaterial.hmac("otraclavesecretadistintaminimum32byteslongxx"), 60_000);
+        String forged = foreign.generateToken("admin", "ROLE_ADMIN");
+
+        assertNull(filterWith(filter, forged, 401));
+        assertNull(filterWith(filter, forged, 401));
+
+        verify(jwtUtil, times(1)).parseClaims(any());
+    }
+
+    @Test
+    void manyDistinctTokens_keepTheCacheBounded() throws Exception {
+        JwtAuthFilter filter = new JwtAuthFilter(jwtUtil, 4, now::get);
+
+        for (int i = 0; i < 10; i++) {
+            filterWith(filter, jwtUtil.generateToken("user" + i, "ROLE_USER"), 200);
+        }
+
+        assertTrue(filter.cachedTokens() <= 4);
+    }
+
+    private Authentication filterWith(JwtAuthFilter filter, String token, int expectedStatus) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(expectedStatus, response.getStatus());
+        assertEquals(expectedStatus == 200, chain.getRequest() != null);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
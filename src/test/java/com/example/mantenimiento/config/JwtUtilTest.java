@@ -0,0 +1,58 @@
+package com.example.mantenimiento.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    @Test
+    void hmac_roundTripsAndPublishesNoKeys() {
+        JwtUtil jwtUtil = new JwtUtil(JwtKeyMaterial.hmac("changeitsecretkeymustbereplacedminimum32byteslong"), 60_000);
+
+        Jws<Claims> claims = jwtUtil.validateToken(jwtUtil.generateToken("admin", "ROLE_ADMIN"));
+
+        assertEquals("admin", claims.getPayload().getSubject());
+        assertEquals("ROLE_ADMIN", claims.getPayload().get("role"));
+        assertTrue(((List<?>) jwtUtil.getJwks().get("keys")).isEmpty());
+    }
+
+    @Test
+    void es256_signsWithKidAndPublishesPublicKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair pair = generator.generateKeyPair();
+        JwtUtil jwtUtil = new JwtUtil(JwtKeyMaterial.asymmetric(pair.getPrivate(), pair.getPublic()), 60_000);
+
+        Jws<Claims> claims = jwtUtil.validateToken(jwtUtil.generateToken("user", "ROLE_USER"));
+        Map<?, ?> jwk = (Map<?, ?>) ((List<?>) jwtUtil.getJwks().get("keys")).get(0);
+
+        assertEquals("ES256", claims.getHeader().getAlgorithm());
+        assertEquals(jwk.get("kid"), claims.getHeader().getKeyId());
+        assertEquals("EC", jwk.get("kty"));
+        assertFalse(jwk.containsKey("d"));
+    }
+
+    @Test
+    void eddsa_rejectsTokenSignedWithAnotherKey() throws Exception {
+        KeyPair pair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        KeyPair other = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        JwtUtil jwtUtil = new JwtUtil(JwtKeyMaterial.asymmetric(pair.getPrivate(), pair.getPublic()), 60_000);
+        JwtUtil foreign = new JwtUtil(JwtKeyMaterial.asymmetric(other.getPrivate(), other.getPublic()), 60_000);
+
+        assertEquals("EdDSA", jwtUtil.validateToken(jwtUtil.generateToken("user", "ROLE_USER")).getHeader().getAlgorithm());
+        assertThrows(SignatureException.class, () -> jwtUtil.validateToken(foreign.generateToken("user", "ROLE_USER")));
+    }
+}
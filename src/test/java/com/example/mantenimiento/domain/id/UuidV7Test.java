@@ -0,0 +1,90 @@
+package com.example.mantenimiento.domain.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7Test {
+
+    @Test
+    void generate_setsVersionAndVariant() {
+        UUID id = UuidV7.generate();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void generate_encodesCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+
+        // Solo cota inferior: otros tests del mismo proceso pueden haber adelantado el estado global
+        assertTrue(UuidV7.timestamp(UuidV7.generate()) >= before);
+    }
+
+    @Test
+    void generate_encodesGivenTimestamp_withIsolatedState() {
+        long now = 1_760_874_400_000L;
+
+        assertEquals(now, UuidV7.timestamp(UuidV7.generate(new AtomicLong(), now)));
+    }
+
+    @Test
+    void generate_carriesIntoNextMillisecond_whenCounterIsExhausted() {
+        AtomicLong state = new AtomicLong();
+        long now = 1_760_874_400_000L;
+
+        for (int i = 0; i < 4096; i++) {
+            assertEquals(now, UuidV7.timestamp(UuidV7.generate(state, now)));
+        }
+
+        assertEquals(now + 1, UuidV7.timestamp(UuidV7.generate(state, now)));
+    }
+
+    @Test
+    void generate_staysIncreasing_whenClockGoesBack() {
+        AtomicLong state = new AtomicLong();
+        UUID first = UuidV7.generate(state, 1_760_874_400_000L);
+
+        UUID second = UuidV7.generate(state, 1_760_874_399_000L);
+
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals(UuidV7.timestamp(first), UuidV7.timestamp(second));
+    }
+
+    @Test
+    void generate_isStrictlyIncreasing_withinSameMillisecond() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7.generate());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0);
+        }
+    }
+
+    @Test
+    void generate_isUnique_acrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 50_000).parallel().forEach(i -> ids.add(UuidV7.generate()));
+
+        assertEquals(50_000, ids.size());
+    }
+
+    @Test
+    void timestamp_rejectsOtherVersions() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(UUID.randomUUID()));
+    }
+}
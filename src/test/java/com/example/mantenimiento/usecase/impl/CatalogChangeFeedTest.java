@@ -0,0 +1,106 @@
+package com.example.mantenimiento.usecase.impl;
+
+import com.example.mantenimiento.adapter.outgoing.persistence.CatalogChange;
+import com.example.mantenimiento.adapter.outgoing.persistence.CatalogChangeRepository;
+import com.example.mantenimiento.domain.exception.SyncTokenExpiredException;
+import com.example.mantenimiento.domain.exception.ValidationException;
+import com.example.mantenimiento.domain.model.Product;
+import com.example.mantenimiento.usecase.model.ChangeSet;
+import com.example.mantenimiento.usecase.model.SyncToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogChangeFeedTest {
+
+    @Mock
+    private CatalogChangeRepository changeRepository;
+
+    private final Instant horizon = Instant.parse("2026-10-19T10:00:00.123456Z");
+    private final Product mouse = Product.builder()
+        .id(UUID.randomUUID()).name("Mouse").price(BigDecimal.TEN).categoryId(UUID.randomUUID()).build();
+    private final UUID deletedId = UUID.randomUUID();
+
+    private CatalogChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new CatalogChangeFeed(changeRepository, 500, 1000, 5000, 4, 3_600_000);
+    }
+
+    @Test
+    void products_fromStart_splitsChangesAndTombstonesAndAdvancesToHorizon() {
+        when(changeRepository.horizon(Duration.ofMillis(5000))).thenReturn(horizon);
+        when(changeRepository.findProductChanges(Instant.EPOCH, new UUID(0, 0), horizon, 3)).thenReturn(List.of(
+            new CatalogChange<>(mouse.getId(), horizon.minusSeconds(60), mouse),
+            new CatalogChange<>(deletedId, horizon.minusSeconds(30), null)
+        ));
+
+        ChangeSet<Product> changes = feed.products(null, 2);
+
+        assertEquals(List.of(mouse), changes.getChanged());
+        assertEquals(List.of(deletedId), changes.getDeleted());
+        assertFalse(changes.hasMore());
+        assertEquals(horizon, SyncToken.decode(changes.getNext().encode()).getChangedAt());
+    }
+
+    @Test
+    void products_fullPage_continuesFromLastRow() {
+        Instant changedAt = horizon.minus(1, ChronoUnit.HOURS);
+        when(changeRepository.horizon(any())).thenReturn(horizon);
+        when(changeRepository.findProductChanges(Instant.EPOCH, new UUID(0, 0), horizon, 2)).thenReturn(List.of(
+            new CatalogChange<>(mouse.getId(), changedAt, mouse),
+            new CatalogChange<>(deletedId, changedAt, null)
+        ));
+
+        ChangeSet<Product> changes = feed.products("", 1);
+
+        assertTrue(changes.hasMore());
+        assertEquals(List.of(mouse), changes.getChanged());
+        assertTrue(changes.getDeleted().isEmpty());
+        SyncToken next = SyncToken.decode(changes.getNext().encode());
+        assertEquals(changedAt, next.getChangedAt());
+        assertEquals(mouse.getId(), next.getId());
+    }
+
+    @Test
+    void products_rejectsTokenOlderThanTombstoneRetention() {
+        String old = new SyncToken(horizon.minus(90, ChronoUnit.DAYS), mouse.getId()).encode();
+        when(changeRepository.horizon(any())).thenReturn(horizon);
+        when(changeRepository.isRetained(any(), eq(horizon.plusMillis(5000)))).thenReturn(false);
+
+        assertThrows(SyncTokenExpiredException.class, () -> feed.products(old, null));
+    }
+
+    @Test
+    void products_rejectsMalformedTokenAndLimit() {
+        assertThrows(ValidationException.class, () -> feed.products("no-es-un-token", null));
+        assertThrows(ValidationException.class, () -> feed.products(null, 0));
+        assertThrows(ValidationException.class, () -> feed.products(null, 1001));
+        verifyNoInteractions(changeRepository);
+    }
+
+    @Test
+    void constructor_rejectsWriteTimeoutLongerThanSettle() {
+        assertThrows(IllegalStateException.class, () -> new CatalogChangeFeed(changeRepository, 500, 1000, 5000, 6, 3_600_000));
+    }
+}
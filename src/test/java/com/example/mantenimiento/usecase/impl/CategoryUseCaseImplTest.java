@@ -1,22 +1,43 @@
 package com.example.mantenimiento.usecase.impl;
 
+import com.example.mantenimiento.adapter.outgoing.cache.CacheInvalidationBus;
+import com.example.mantenimiento.adapter.outgoing.cache.CacheInvalidationListener;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogEntityType;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogIdFilter;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogSnapshot;
+import com.example.mantenimiento.adapter.outgoing.cache.CategoryCache;
+import com.example.mantenimiento.adapter.outgoing.cache.InMemoryCatalog;
 import com.example.mantenimiento.adapter.outgoing.persistence.CategoryRepository;
+import com.example.mantenimiento.adapter.outgoing.persistence.ProductRepository;
 import com.example.mantenimiento.adapter.outgoing.persistence.entity.CategoryEntity;
 import com.example.mantenimiento.adapter.outgoing.persistence.mapper.CategoryEntityMapper;
-import com.example.mantenimiento.domain.exception.ResourceNotFoundException;
+import com.example.mantenimiento.domain.exception.ResourceInUseException;
 import com.example.mantenimiento.domain.model.Category;
+import com.example.mantenimiento.usecase.model.CategoryDeletePolicy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,11 +49,29 @@ class CategoryUseCaseImplTest {
     @Mock
     private CategoryEntityMapper categoryEntityMapper;
 
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryCache categoryCache;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    @Mock
+    private CatalogIdFilter idFilter;
+
+    @Mock
+    private InMemoryCatalog inMemoryCatalog;
+
+    @Mock
+    private CatalogChangeFeed changeFeed;
+
     private CategoryUseCaseImpl categoryUseCase;
 
     @BeforeEach
     void setUp() {
-        categoryUseCase = new CategoryUseCaseImpl(categoryRepository, categoryEntityMapper);
+        categoryUseCase = newUseCase(CategoryDeletePolicy.RESTRICT, null);
     }
 
     @Test
@@ -52,12 +91,23 @@ class CategoryUseCaseImplTest {
         assertTrue(result.contains(c2));
     }
 
+    @Test
+    void getById_readsInMemoryCatalogWithoutQuerying() {
+        Category category = Category.builder().id(UUID.randomUUID()).name("Audio").build();
+        when(inMemoryCatalog.current()).thenReturn(CatalogSnapshot.of(List.of(category), List.of()));
+
+        assertEquals(Optional.of(category), categoryUseCase.getById(category.getId()));
+        assertEquals(List.of(category), categoryUseCase.list());
+        verify(categoryRepository, never()).findById(any());
+        verify(idFilter, never()).mightContain(any(), any());
+    }
+
     @Test
     void create_savesCategory() {
         Category category = Category.builder().name("Gaming").build();
         CategoryEntity entity = new CategoryEntity(UUID.randomUUID(), "Gaming");
 
-        when(categoryEntityMapper.toEntity(category)).thenReturn(entity);
+        when(categoryEntityMapper.toNewEntity(category)).thenReturn(entity);
         when(categoryRepository.save(entity)).thenReturn(entity);
         when(categoryEntityMapper.toDomain(entity)).thenReturn(category);
 
@@ -71,6 +121,7 @@ class CategoryUseCaseImplTest {
         CategoryEntity entity = new CategoryEntity(id, "Audio");
         Category category = Category.builder().id(id).name("Audio").build();
 
+        when(idFilter.mightContain(CatalogEntityType.CATEGORY, id)).thenReturn(true);
         when(categoryRepository.findById(id)).thenReturn(Optional.of(entity));
         when(categoryEntityMapper.toDomain(entity)).thenReturn(category);
 
@@ -92,26 +143,135 @@ class CategoryUseCaseImplTest {
         when(categoryRepository.save(updatedEntity)).thenReturn(updatedEntity);
         when(categoryEntityMapper.toDomain(updatedEntity)).thenReturn(updatedCategory);
 
-        Category result = categoryUseCase.update(id, updates);
+        Category result = categoryUseCase.update(id, updates).orElseThrow();
         assertEquals("Tecnología", result.getName());
     }
 
     @Test
-    void update_throwsResourceNotFoundExceptionWhenCategoryDoesNotExist() {
+    void update_returnsEmptyWhenCategoryDoesNotExist() {
         UUID id = UUID.randomUUID();
         Category updates = Category.builder().name("Tecnología").build();
 
         when(categoryRepository.findById(id)).thenReturn(Optional.empty());
 
-        assertThrows(ResourceNotFoundException.class, () -> categoryUseCase.update(id, updates));
+        assertTrue(categoryUseCase.update(id, updates).isEmpty());
+        verify(categoryRepository, never()).save(any());
     }
 
     @Test
-    void deleteById_throwsResourceNotFoundExceptionWhenCategoryDoesNotExist() {
+    void deleteById_returnsFalseWhenCategoryDoesNotExist() {
         UUID id = UUID.randomUUID();
 
         when(categoryRepository.existsById(id)).thenReturn(false);
 
-        assertThrows(ResourceNotFoundException.class, () -> categoryUseCase.deleteById(id));
+        assertFalse(categoryUseCase.deleteById(id));
+        verify(categoryRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void deleteById_restrictTranslatesForeignKeyViolationToResourceInUse() {
+        UUID id = UUID.randomUUID();
+
+        when(categoryRepository.existsById(id)).thenReturn(true);
+        doThrow(new DataIntegrityViolationException("fk", new SQLException("violates foreign key constraint", "23503")))
+            .when(categoryRepository).flush();
+
+        assertThrows(ResourceInUseException.class, () -> categoryUseCase.deleteById(id));
+        verify(productRepository, never()).deleteByCategoryId(any());
+        verify(categoryCache, never()).evict(id);
+        verify(invalidationBus, never()).publish(any(), any());
+    }
+
+    @Test
+    void deleteById_cascadeDeletesProductsInOneStatement() {
+        UUID id = UUID.randomUUID();
+        categoryUseCase = newUseCase(CategoryDeletePolicy.CASCADE, null);
+
+        when(categoryRepository.existsById(id)).thenReturn(true);
+
+        categoryUseCase.deleteById(id);
+
+        verify(productRepository).deleteByCategoryId(id);
+        verify(categoryRepository).deleteById(id);
+        verify(invalidationBus).publish(CatalogEntityType.CATEGORY, id);
+        verify(invalidationBus).publishAll(CatalogEntityType.PRODUCT);
+    }
+
+    @Test
+    void deleteById_reassignMovesProductsToConfiguredCategory() {
+        UUID id = UUID.randomUUID();
+        UUID target = UUID.randomUUID();
+        categoryUseCase = newUseCase(CategoryDeletePolicy.REASSIGN, target.toString());
+
+        when(categoryRepository.existsById(id)).thenReturn(true);
+        when(categoryCache.exists(target)).thenReturn(true);
+
+        categoryUseCase.deleteById(id);
+
+        verify(productRepository).reassignCategory(id, target);
+        verify(categoryRepository).deleteById(id);
+    }
+
+    @Test
+    void create_rolledBack_leavesNoCategoryInCache() {
+        CategoryCache cache = new CategoryCache(categoryRepository, categoryEntityMapper);
+        CategoryUseCaseImpl useCase = withRealCacheAndBus(cache);
+        CategoryEntity entity = new CategoryEntity(UUID.randomUUID(), "Gaming");
+        Category created = Category.builder().id(entity.getId()).name("Gaming").build();
+        when(categoryEntityMapper.toNewEntity(any())).thenReturn(entity);
+        when(categoryRepository.save(entity)).thenReturn(entity);
+        when(categoryEntityMapper.toDomain(entity)).thenReturn(created);
+
+        inTransaction(() -> useCase.create(Category.builder().name("Gaming").build()), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        when(categoryRepository.findById(entity.getId())).thenReturn(Optional.empty());
+        assertTrue(cache.get(entity.getId()).isEmpty());
+    }
+
+    @Test
+    void deleteById_evictsCachedCategoryOnlyAfterCommit() {
+        UUID id = UUID.randomUUID();
+        CategoryCache cache = new CategoryCache(categoryRepository, categoryEntityMapper);
+        cache.put(Category.builder().id(id).name("Audio").build());
+        CategoryUseCaseImpl useCase = withRealCacheAndBus(cache);
+        when(categoryRepository.existsById(id)).thenReturn(true);
+
+        inTransaction(() -> {
+            useCase.deleteById(id);
+            // Una lectura concurrente antes del commit todavía ve (y podría recargar) la categoría
+            assertTrue(cache.get(id).isPresent());
+        }, TransactionSynchronization.STATUS_COMMITTED);
+
+        when(categoryRepository.findById(id)).thenReturn(Optional.empty());
+        assertTrue(cache.get(id).isEmpty());
+    }
+
+    private CategoryUseCaseImpl withRealCacheAndBus(CategoryCache cache) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<CacheInvalidationListener> listeners = mock(ObjectProvider.class);
+        lenient().when(listeners.iterator()).thenAnswer(invocation -> List.<CacheInvalidationListener>of(cache).iterator());
+        CacheInvalidationBus bus = new CacheInvalidationBus(
+            mock(JdbcTemplate.class), new DataSourceProperties(), listeners, false, "catalog_invalidation"
+        );
+        return new CategoryUseCaseImpl(categoryRepository, categoryEntityMapper, productRepository, cache, bus, idFilter, inMemoryCatalog, changeFeed, CategoryDeletePolicy.RESTRICT, null);
+    }
+
+    // Simula la transacción de Spring: commit o rollback de las sincronizaciones registradas
+    private static void inTransaction(Runnable work, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private CategoryUseCaseImpl newUseCase(CategoryDeletePolicy policy, String reassignTo) {
+        return new CategoryUseCaseImpl(categoryRepository, categoryEntityMapper, productRepository, categoryCache, invalidationBus, idFilter, inMemoryCatalog, changeFeed, policy, reassignTo);
     }
 }
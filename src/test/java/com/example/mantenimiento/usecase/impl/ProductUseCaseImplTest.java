@@ -1,9 +1,15 @@
 package com.example.mantenimiento.usecase.impl;
 
+import com.example.mantenimiento.adapter.outgoing.cache.CacheInvalidationBus;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogEntityType;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogIdFilter;
+import com.example.mantenimiento.adapter.outgoing.cache.CatalogSnapshot;
+import com.example.mantenimiento.adapter.outgoing.cache.CategoryCache;
+import com.example.mantenimiento.adapter.outgoing.cache.InMemoryCatalog;
 import com.example.mantenimiento.adapter.outgoing.persistence.ProductRepository;
 import com.example.mantenimiento.adapter.outgoing.persistence.entity.ProductEntity;
 import com.example.mantenimiento.adapter.outgoing.persistence.mapper.ProductEntityMapper;
-import com.example.mantenimiento.domain.exception.ResourceNotFoundException;
+import com.example.mantenimiento.domain.exception.ValidationException;
 import com.example.mantenimiento.domain.model.Product;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +24,8 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,11 +37,26 @@ class ProductUseCaseImplTest {
     @Mock
     private ProductEntityMapper productEntityMapper;
 
+    @Mock
+    private CategoryCache categoryCache;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    @Mock
+    private CatalogIdFilter idFilter;
+
+    @Mock
+    private InMemoryCatalog inMemoryCatalog;
+
+    @Mock
+    private CatalogChangeFeed changeFeed;
+
     private ProductUseCaseImpl productUseCase;
 
     @BeforeEach
     void setUp() {
-        productUseCase = new ProductUseCaseImpl(productRepository, productEntityMapper);
+        productUseCase = new ProductUseCaseImpl(productRepository, productEntityMapper, categoryCache, invalidationBus, idFilter, inMemoryCatalog, changeFeed);
     }
 
     @Test
@@ -53,18 +76,31 @@ class ProductUseCaseImplTest {
         assertTrue(result.contains(p2));
     }
 
+    @Test
+    void list_readsInMemoryCatalogWithoutQuerying() {
+        Product product = Product.builder().id(UUID.randomUUID()).name("Mouse").price(BigDecimal.valueOf(19.9)).categoryId(UUID.randomUUID()).build();
+        when(inMemoryCatalog.current()).thenReturn(CatalogSnapshot.of(List.of(), List.of(product)));
+
+        assertEquals(List.of(product), productUseCase.list());
+        assertEquals(Optional.of(product), productUseCase.getById(product.getId()));
+        verify(productRepository, never()).findAll();
+        verify(productRepository, never()).findById(any());
+    }
+
     @Test
     void create_savesProduct() {
         UUID catId = UUID.randomUUID();
         Product product = Product.builder().name("Webcam").description("Full HD").price(BigDecimal.valueOf(29.9)).categoryId(catId).build();
         ProductEntity entity = new ProductEntity(UUID.randomUUID(), "Webcam", "Full HD", BigDecimal.valueOf(29.9), catId);
 
-        when(productEntityMapper.toEntity(product)).thenReturn(entity);
-        when(productRepository.save(entity)).thenReturn(entity);
+        when(categoryCache.exists(catId)).thenReturn(true);
+        when(productEntityMapper.toNewEntity(product)).thenReturn(entity);
+        when(productRepository.saveAndFlush(entity)).thenReturn(entity);
         when(productEntityMapper.toDomain(entity)).thenReturn(product);
 
         Product result = productUseCase.create(product);
         assertEquals(product, result);
+        verify(invalidationBus).publish(CatalogEntityType.PRODUCT, entity.getId());
     }
 
     @Test
@@ -74,6 +110,7 @@ class ProductUseCaseImplTest {
         ProductEntity entity = new ProductEntity(id, "Monitor", "27 pulgadas", BigDecimal.valueOf(199.9), catId);
         Product product = Product.builder().id(id).name("Monitor").description("27 pulgadas").price(BigDecimal.valueOf(199.9)).categoryId(catId).build();
 
+        when(idFilter.mightContain(CatalogEntityType.PRODUCT, id)).thenReturn(true);
         when(productRepository.findById(id)).thenReturn(Optional.of(entity));
         when(productEntityMapper.toDomain(entity)).thenReturn(product);
 
@@ -82,6 +119,27 @@ class ProductUseCaseImplTest {
         assertEquals(product, result.get());
     }
 
+    @Test
+    void getById_returnsEmptyWithoutQueryingWhenIdFilterRejectsId() {
+        UUID id = UUID.randomUUID();
+
+        when(idFilter.mightContain(CatalogEntityType.PRODUCT, id)).thenReturn(false);
+
+        assertTrue(productUseCase.getById(id).isEmpty());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void getById_recordsFalsePositiveWhenFilteredIdDoesNotExist() {
+        UUID id = UUID.randomUUID();
+
+        when(idFilter.mightContain(CatalogEntityType.PRODUCT, id)).thenReturn(true);
+        when(productRepository.findById(id)).thenReturn(Optional.empty());
+
+        assertTrue(productUseCase.getById(id).isEmpty());
+        verify(idFilter).recordFalsePositive(CatalogEntityType.PRODUCT);
+    }
+
     @Test
     void update_updatesExistingProduct() {
         UUID id = UUID.randomUUID();
@@ -92,11 +150,12 @@ class ProductUseCaseImplTest {
         Product updatedProduct = Product.builder().id(id).name("Mouse Pro").description("Inalámbrico RGB").price(BigDecimal.valueOf(29.9)).categoryId(catId).build();
 
         when(productRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(categoryCache.exists(catId)).thenReturn(true);
         when(productEntityMapper.toEntity(any(Product.class))).thenReturn(updatedEntity);
-        when(productRepository.save(updatedEntity)).thenReturn(updatedEntity);
+        when(productRepository.saveAndFlush(updatedEntity)).thenReturn(updatedEntity);
         when(productEntityMapper.toDomain(updatedEntity)).thenReturn(updatedProduct);
 
-        Product result = productUseCase.update(id, updates);
+        Product result = productUseCase.update(id, updates).orElseThrow();
         assertEquals("Mouse Pro", result.getName());
         assertEquals("Inalámbrico RGB", result.getDescription());
         assertEquals(BigDecimal.valueOf(29.9), result.getPrice());
@@ -104,22 +163,35 @@ class ProductUseCaseImplTest {
     }
 
     @Test
-    void update_throwsResourceNotFoundExceptionWhenProductDoesNotExist() {
+    void update_returnsEmptyWhenProductDoesNotExist() {
         UUID id = UUID.randomUUID();
         UUID catId = UUID.randomUUID();
         Product updates = Product.builder().name("Mouse Pro").description("Inalámbrico RGB").price(BigDecimal.valueOf(29.9)).categoryId(catId).build();
 
         when(productRepository.findById(id)).thenReturn(Optional.empty());
 
-        assertThrows(ResourceNotFoundException.class, () -> productUseCase.update(id, updates));
+        assertTrue(productUseCase.update(id, updates).isEmpty());
+        verify(productRepository, never()).saveAndFlush(any());
     }
 
     @Test
-    void deleteById_throwsResourceNotFoundExceptionWhenProductDoesNotExist() {
+    void deleteById_returnsFalseWhenProductDoesNotExist() {
         UUID id = UUID.randomUUID();
 
         when(productRepository.existsById(id)).thenReturn(false);
 
-        assertThrows(ResourceNotFoundException.class, () -> productUseCase.deleteById(id));
+        assertFalse(productUseCase.deleteById(id));
+        verify(productRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void create_throwsValidationExceptionWhenCategoryDoesNotExist() {
+        UUID catId = UUID.randomUUID();
+        Product product = Product.builder().name("Webcam").description("Full HD").price(BigDecimal.valueOf(29.9)).categoryId(catId).build();
+
+        when(categoryCache.exists(catId)).thenReturn(false);
+
+        assertThrows(ValidationException.class, () -> productUseCase.create(product));
+        verify(productRepository, never()).saveAndFlush(any());
     }
 }
@@ -1,21 +1,35 @@
 package com.example.mantenimiento.usecase.impl;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.example.mantenimiento.adapter.outgoing.persistence.UserRepository;
 import com.example.mantenimiento.adapter.outgoing.persistence.entity.UserEntity;
 import com.example.mantenimiento.adapter.outgoing.persistence.mapper.UserEntityMapper;
+import com.example.mantenimiento.domain.exception.DuplicateResourceException;
 import com.example.mantenimiento.domain.model.User;
+import com.example.mantenimiento.usecase.model.UserRegistrationOutcome;
 
 @ExtendWith(MockitoExtension.class)
 class UserUseCaseImplTest {
@@ -33,7 +47,7 @@ class UserUseCaseImplTest {
 
     @BeforeEach
     void setUp() {
-        userUseCase = new UserUseCaseImpl(userRepository, passwordEncoder, userEntityMapper);
+        userUseCase = new UserUseCaseImpl(userRepository, passwordEncoder, userEntityMapper, ForkJoinPool.commonPool());
     }
 
     @Test
@@ -44,8 +58,8 @@ class UserUseCaseImplTest {
         User savedUser = User.builder().id(id).username("newuser").password("hashed").role("ROLE_USER").build();
 
         when(passwordEncoder.encode("plain12")).thenReturn("hashed");
-        when(userEntityMapper.toEntity(any(User.class))).thenReturn(entity);
-        when(userRepository.save(entity)).thenReturn(entity);
+        when(userEntityMapper.toNewEntity(any(User.class))).thenReturn(entity);
+        when(userRepository.saveAndFlush(entity)).thenReturn(entity);
         when(userEntityMapper.toDomain(entity)).thenReturn(savedUser);
 
         User result = userUseCase.register(input);
@@ -63,8 +77,8 @@ class UserUseCaseImplTest {
         User savedUser = User.builder().id(id).username("admin").password("hashed-admin").role("ROLE_ADMIN").build();
 
         when(passwordEncoder.encode("plain12")).thenReturn("hashed-admin");
-        when(userEntityMapper.toEntity(any(User.class))).thenReturn(entity);
-        when(userRepository.save(entity)).thenReturn(entity);
+        when(userEntityMapper.toNewEntity(any(User.class))).thenReturn(entity);
+        when(userRepository.saveAndFlush(entity)).thenReturn(entity);
         when(userEntityMapper.toDomain(entity)).thenReturn(savedUser);
 
         User result = userUseCase.register(input);
@@ -72,4 +86,108 @@ class UserUseCaseImplTest {
         assertEquals("hashed-admin", result.getPassword());
         assertEquals("ROLE_ADMIN", result.getRole());
     }
+
+    @Test
+    void registerAll_createsNewUsersAndReportsDuplicatesInOrder() {
+        User ana = User.builder().id(UUID.randomUUID()).username("ana").password("plain12").build();
+        User luis = User.builder().id(UUID.randomUUID()).username("luis").password("plain12").build();
+        User anaAgain = User.builder().id(UUID.randomUUID()).username("ana").password("other12").build();
+        UserEntity anaEntity = new UserEntity(UUID.randomUUID(), "ana", "hashed", "ROLE_USER");
+        User savedAna = User.builder().id(anaEntity.getId()).username("ana").password("hashed").role("ROLE_USER").build();
+
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of("luis"));
+        when(passwordEncoder.encode("plain12")).thenReturn("hashed");
+        when(userEntityMapper.toNewEntity(any(User.class))).thenReturn(anaEntity);
+        when(userRepository.saveAll(anyList())).thenReturn(List.of(anaEntity));
+        when(userEntityMapper.toDomain(anaEntity)).thenReturn(savedAna);
+
+        List<UserRegistrationOutcome> result = userUseCase.registerAll(List.of(ana, luis, anaAgain));
+
+        assertEquals(3, result.size());
+        assertEquals(UserRegistrationOutcome.Status.CREATED, result.get(0).getStatus());
+        assertEquals(anaEntity.getId(), result.get(0).getUser().getId());
+        assertEquals(UserRegistrationOutcome.Status.DUPLICATE, result.get(1).getStatus());
+        assertEquals(UserRegistrationOutcome.Status.DUPLICATE, result.get(2).getStatus());
+        verify(passwordEncoder, times(1)).encode(any());
+    }
+
+    @Test
+    void registerAll_retriesMarkingNamesTakenByAConcurrentRegistrationAsDuplicates() {
+        User ana = User.builder().id(UUID.randomUUID()).username("Ana").password("plain12").build();
+        User luis = User.builder().id(UUID.randomUUID()).username("luis").password("plain12").build();
+        List<UserEntity> retried = new ArrayList<>();
+
+        when(passwordEncoder.encode("plain12")).thenReturn("hashed");
+        when(userEntityMapper.toNewEntity(any(User.class))).thenAnswer(invocation -> newEntity(invocation.getArgument(0)));
+        when(userEntityMapper.toDomain(any(UserEntity.class))).thenAnswer(invocation -> toDomain(invocation.getArgument(0)));
+        // Otro alta confirma "ana" entre la comprobación previa y el INSERT del lote
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of(), List.of("ana"));
+        when(userRepository.saveAll(anyList()))
+            .thenThrow(usernameViolation())
+            .thenAnswer(invocation -> {
+                retried.addAll(invocation.getArgument(0));
+                return retried;
+            });
+
+        List<UserRegistrationOutcome> result = userUseCase.registerAll(List.of(ana, luis));
+
+        assertEquals(UserRegistrationOutcome.Status.DUPLICATE, result.get(0).getStatus());
+        assertEquals("Ana", result.get(0).getUsername());
+        assertEquals(UserRegistrationOutcome.Status.CREATED, result.get(1).getStatus());
+        assertEquals(luis.getId(), result.get(1).getUser().getId());
+        assertEquals(1, retried.size());
+        assertTrue(retried.get(0).isNew());
+        verify(passwordEncoder, times(2)).encode(any());
+    }
+
+    @Test
+    void registerAll_failsWholeBatchWhenTheConflictCannotBeAttributedOrKeepsRepeating() {
+        List<User> users = List.of(
+            User.builder().id(UUID.randomUUID()).username("user-a").password("plain12").build(),
+            User.builder().id(UUID.randomUUID()).username("user-b").password("plain12").build(),
+            User.builder().id(UUID.randomUUID()).username("user-c").password("plain12").build(),
+            User.builder().id(UUID.randomUUID()).username("user-d").password("plain12").build()
+        );
+        when(passwordEncoder.encode("plain12")).thenReturn("hashed");
+        when(userEntityMapper.toNewEntity(any(User.class))).thenAnswer(invocation -> newEntity(invocation.getArgument(0)));
+        when(userRepository.saveAll(anyList())).thenThrow(usernameViolation());
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of(), List.of("user-a"), List.of("user-b"));
+
+        assertThrows(DuplicateResourceException.class, () -> userUseCase.registerAll(users));
+        verify(userRepository, times(3)).saveAll(anyList());
+
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of());
+
+        assertThrows(DuplicateResourceException.class, () -> userUseCase.registerAll(users));
+        verify(userRepository, times(4)).saveAll(anyList());
+    }
+
+    @Test
+    void register_throwsDuplicateResourceException_whenUniqueIndexRejectsUsername() {
+        User input = User.builder().id(UUID.randomUUID()).username("Admin").password("plain12").build();
+        UserEntity entity = new UserEntity(input.getId(), "Admin", "hashed", "ROLE_USER");
+
+        when(passwordEncoder.encode("plain12")).thenReturn("hashed");
+        when(userEntityMapper.toNewEntity(any(User.class))).thenReturn(entity);
+        when(userRepository.saveAndFlush(entity)).thenThrow(usernameViolation());
+
+        assertThrows(DuplicateResourceException.class, () -> userUseCase.register(input));
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    private static UserEntity newEntity(User user) {
+        return new UserEntity(user.getId(), user.getUsername(), user.getPassword(), "ROLE_USER").markNew();
+    }
+
+    private static User toDomain(UserEntity entity) {
+        return User.builder().id(entity.getId()).username(entity.getUsername()).password(entity.getPassword()).role(entity.getRole()).build();
+    }
+
+    private static DataIntegrityViolationException usernameViolation() {
+        return new DataIntegrityViolationException("duplicate key", new org.hibernate.exception.ConstraintViolationException(
+            "duplicate key value violates unique constraint",
+            new SQLException("duplicate key value violates unique constraint", "23505"),
+            UserEntity.USERNAME_UNIQUE_INDEX
+        ));
+    }
 }